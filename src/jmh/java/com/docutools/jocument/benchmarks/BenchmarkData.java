@@ -0,0 +1,79 @@
+package com.docutools.jocument.benchmarks;
+
+import com.docutools.jocument.sample.model.Captain;
+import com.docutools.jocument.sample.model.City;
+import com.docutools.jocument.sample.model.FirstOfficer;
+import com.docutools.jocument.sample.model.PlanetServiceInfo;
+import com.docutools.jocument.sample.model.SampleModelData;
+import com.docutools.jocument.sample.model.Service;
+import com.docutools.jocument.sample.model.Uniform;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generates the sample model of the tests in configurable sizes.
+ * Every captain has {@code rows} services, and with a nesting depth of two or three every service visits three planets
+ * and every planet three cities.
+ */
+final class BenchmarkData {
+  private static final int NESTED_ROWS = 3;
+
+  private BenchmarkData() {
+  }
+
+  static Captain captain(int rows, int depth) {
+    return new Captain("Jean-Luc Picard",
+        4,
+        Uniform.Red,
+        new FirstOfficer("Riker", 3, Uniform.Red),
+        services(rows, depth),
+        SampleModelData.PICARD.getProfilePic());
+  }
+
+  static String captainJson(int rows, int depth) {
+    return ("{\"name\": \"Jean-Luc Picard\", \"rank\": 4, \"uniform\": \"Red\", "
+        + "\"officer\": {\"name\": \"Riker\", \"rank\": 3, \"uniform\": \"Red\"}, "
+        + "\"services\": %s}").formatted(json(services(rows, depth)));
+  }
+
+  /**
+   * A JSON crew of {@code rows} officers, each with the profile picture of the sample captain as {@code file:} URL.
+   */
+  static String crewJson(int rows) {
+    String profilePic = SampleModelData.PICARD.getProfilePic().toUri().toString();
+    return IntStream.range(0, rows)
+        .mapToObj(i -> "{\"name\": \"Officer %d\", \"profilePic\": \"%s\"}".formatted(i, profilePic))
+        .collect(Collectors.joining(", ", "{\"crew\": [", "]}"));
+  }
+
+  private static List<Service> services(int rows, int depth) {
+    return IntStream.range(0, rows)
+        .mapToObj(i -> new Service("USS Enterprise " + i, depth < 2 ? List.of() : planets(depth)))
+        .collect(Collectors.toList());
+  }
+
+  private static List<PlanetServiceInfo> planets(int depth) {
+    return IntStream.range(0, NESTED_ROWS)
+        .mapToObj(i -> new PlanetServiceInfo("Planet " + i, depth < 3 ? List.of() : cities()))
+        .collect(Collectors.toList());
+  }
+
+  private static List<City> cities() {
+    return IntStream.range(0, NESTED_ROWS)
+        .mapToObj(i -> new City("City " + i))
+        .collect(Collectors.toList());
+  }
+
+  private static String json(List<Service> services) {
+    return services.stream()
+        .map(service -> "{\"shipName\": \"%s\", \"visitedPlanets\": [%s]}".formatted(service.getShipName(),
+            service.getVisitedPlanets().stream()
+                .map(planet -> "{\"planetName\": \"%s\", \"visitedCities\": [%s]}".formatted(planet.getPlanetName(),
+                    planet.getVisitedCities().stream()
+                        .map(city -> "{\"cityName\": \"%s\"}".formatted(city.getCityName()))
+                        .collect(Collectors.joining(", "))))
+                .collect(Collectors.joining(", "))))
+        .collect(Collectors.joining(", ", "[", "]"));
+  }
+}
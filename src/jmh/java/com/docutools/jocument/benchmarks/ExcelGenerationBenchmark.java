@@ -0,0 +1,56 @@
+package com.docutools.jocument.benchmarks;
+
+import com.docutools.jocument.PlaceholderResolver;
+import com.docutools.jocument.Template;
+import com.docutools.jocument.impl.ReflectionResolver;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the expansion of nested loops by the {@link com.docutools.jocument.impl.excel.implementations.ExcelGenerator}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExcelGenerationBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int rows;
+
+  @Param({"1", "2", "3"})
+  private int depth;
+
+  private Template template;
+  private PlaceholderResolver resolver;
+
+  /**
+   * Loads the template and generates the data to render.
+   *
+   * @throws IOException if the template could not be read
+   */
+  @Setup
+  public void setup() throws IOException {
+    template = Template.fromClassPath("/templates/excel/NestedLoopDocument.xlsx").orElseThrow().compile();
+    resolver = new ReflectionResolver(BenchmarkData.captain(rows, depth));
+  }
+
+  @Benchmark
+  public void loopExpansion() throws IOException {
+    template.generate(resolver, OutputStream.nullOutputStream());
+  }
+}
@@ -0,0 +1,67 @@
+package com.docutools.jocument.benchmarks;
+
+import com.docutools.jocument.PlaceholderResolver;
+import com.docutools.jocument.Template;
+import com.docutools.jocument.impl.ReflectionResolver;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Renders very large loops into an Excel document on a small, fixed heap.
+ * The rows are generated lazily while they are written, so the benchmark fails with an {@link OutOfMemoryError} if
+ * the generation retains the items or the written rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx128m")
+public class ExcelStreamingBenchmark {
+
+  @Param({"1000000"})
+  private int rows;
+
+  private Template template;
+  private PlaceholderResolver resolver;
+
+  /**
+   * Loads the template.
+   *
+   * @throws IOException if the template could not be read
+   */
+  @Setup
+  public void setup() throws IOException {
+    template = Template.fromClassPath("/templates/excel/SimpleDocumentWithLoop.xlsx").orElseThrow().compile();
+  }
+
+  /**
+   * Creates the lazily generated rows, since a stream may only be consumed once.
+   */
+  @Setup(Level.Invocation)
+  public void createRows() {
+    var services = IntStream.range(0, rows)
+        .mapToObj(i -> Map.of("shipName", "USS Enterprise " + i));
+    resolver = new ReflectionResolver(Map.of("services", services));
+  }
+
+  @Benchmark
+  public void millionRows() throws IOException {
+    template.generate(resolver, OutputStream.nullOutputStream());
+  }
+}
@@ -0,0 +1,89 @@
+package com.docutools.jocument.benchmarks;
+
+import com.docutools.jocument.ExcelWriterOptions;
+import com.docutools.jocument.PlaceholderResolver;
+import com.docutools.jocument.Template;
+import com.docutools.jocument.impl.ReflectionResolver;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link ExcelWriterOptions} when streaming large loops. An empty {@code tempDirectory} uses the default
+ * temporary directory of POI.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExcelWriterOptionsBenchmark {
+
+  @Param({"100000"})
+  private int rows;
+
+  @Param({"100", "1000"})
+  private int rowAccessWindowSize;
+
+  @Param({"false", "true"})
+  private boolean compressTempFiles;
+
+  @Param({"false", "true"})
+  private boolean sharedStringsTable;
+
+  @Param({"", "build/tmp/jmh-sxssf"})
+  private String tempDirectory;
+
+  private Template template;
+  private PlaceholderResolver resolver;
+
+  /**
+   * Loads the template and configures the writer.
+   *
+   * @throws IOException if the template could not be read
+   */
+  @Setup
+  public void setup() throws IOException {
+    var options = ExcelWriterOptions.defaults()
+        .withRowAccessWindowSize(rowAccessWindowSize)
+        .withCompressTempFiles(compressTempFiles)
+        .withSharedStringsTable(sharedStringsTable);
+    if (!tempDirectory.isEmpty()) {
+      options = options.withTempDirectory(Path.of(tempDirectory));
+    }
+    template = Template.fromClassPath("/templates/excel/SimpleDocumentWithLoop.xlsx").orElseThrow()
+        .compile()
+        .withExcelWriterOptions(options);
+  }
+
+  /**
+   * Creates the lazily generated rows, since a stream may only be consumed once.
+   */
+  @Setup(Level.Invocation)
+  public void createRows() {
+    var services = IntStream.range(0, rows)
+        .mapToObj(i -> Map.of("shipName", "USS Enterprise " + i % 100));
+    resolver = new ReflectionResolver(Map.of("services", services));
+  }
+
+  @Benchmark
+  public void write() throws IOException {
+    template.generate(resolver, OutputStream.nullOutputStream());
+  }
+}
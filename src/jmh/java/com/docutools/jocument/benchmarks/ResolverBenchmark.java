@@ -0,0 +1,73 @@
+package com.docutools.jocument.benchmarks;
+
+import com.docutools.jocument.PlaceholderData;
+import com.docutools.jocument.PlaceholderResolver;
+import com.docutools.jocument.impl.JsonResolver;
+import com.docutools.jocument.impl.ReflectionResolver;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the {@link ReflectionResolver} with the {@link JsonResolver} by resolving every value of the same data,
+ * the way the generators walk through nested loops.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ResolverBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int rows;
+
+  @Param({"1", "2", "3"})
+  private int depth;
+
+  private PlaceholderResolver reflectionResolver;
+  private PlaceholderResolver jsonResolver;
+
+  /**
+   * Creates both resolvers from equivalent data.
+   */
+  @Setup
+  public void setup() {
+    reflectionResolver = new ReflectionResolver(BenchmarkData.captain(rows, depth));
+    jsonResolver = new JsonResolver(BenchmarkData.captainJson(rows, depth));
+  }
+
+  @Benchmark
+  public void reflectionResolver(Blackhole blackhole) {
+    walk(reflectionResolver, blackhole);
+  }
+
+  @Benchmark
+  public void jsonResolver(Blackhole blackhole) {
+    walk(jsonResolver, blackhole);
+  }
+
+  private static void walk(PlaceholderResolver captain, Blackhole blackhole) {
+    blackhole.consume(captain.resolve("name").map(PlaceholderData::toString));
+    blackhole.consume(captain.resolve("rank").map(PlaceholderData::toString));
+    captain.resolve("services").orElseThrow().stream().forEach(service -> {
+      blackhole.consume(service.resolve("shipName").map(PlaceholderData::toString));
+      service.resolve("visitedPlanets").orElseThrow().stream().forEach(planet -> {
+        blackhole.consume(planet.resolve("planetName").map(PlaceholderData::toString));
+        planet.resolve("visitedCities").orElseThrow().stream()
+            .forEach(city -> blackhole.consume(city.resolve("cityName").map(PlaceholderData::toString)));
+      });
+    });
+  }
+}
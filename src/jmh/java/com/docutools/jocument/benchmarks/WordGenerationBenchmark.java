@@ -0,0 +1,112 @@
+package com.docutools.jocument.benchmarks;
+
+import com.docutools.jocument.PlaceholderResolver;
+import com.docutools.jocument.Template;
+import com.docutools.jocument.impl.JsonResolver;
+import com.docutools.jocument.impl.ReflectionResolver;
+import com.docutools.jocument.sample.model.SampleModelData;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the generation of word documents, writing them to a discarding stream so only rendering is measured.
+ * The loop benchmarks render {@code rows} services with loops nested {@code depth} levels deep, the image benchmark
+ * inserts one picture for each of {@code rows} loop items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WordGenerationBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int rows;
+
+  @Param({"1", "2", "3"})
+  private int depth;
+
+  private Path nestedLoopFile;
+  private Path imageLoopFile;
+  private Template scalarTemplate;
+  private Template loopTemplate;
+  private Template imageTemplate;
+  private PlaceholderResolver scalarResolver;
+  private PlaceholderResolver loopResolver;
+  private PlaceholderResolver imageResolver;
+
+  /**
+   * Loads the templates and generates the data to render.
+   *
+   * @throws IOException if a template could not be read
+   */
+  @Setup
+  public void setup() throws IOException {
+    scalarTemplate = Template.fromClassPath("/templates/word/UserProfileTemplate.docx").orElseThrow().compile();
+    nestedLoopFile = writeTemplate("{{name}}", "{{services}}", "{{shipName}}",
+        "{{visitedPlanets}}", "{{planetName}}",
+        "{{visitedCities}}", "{{cityName}}", "{{/visitedCities}}",
+        "{{/visitedPlanets}}",
+        "{{/services}}");
+    imageLoopFile = writeTemplate("{{crew}}", "{{name}}", "{{profilePic}}", "{{/crew}}");
+    loopTemplate = Template.from(nestedLoopFile).orElseThrow().compile();
+    imageTemplate = Template.from(imageLoopFile).orElseThrow().compile();
+    scalarResolver = new ReflectionResolver(SampleModelData.PICARD_PERSON);
+    loopResolver = new ReflectionResolver(BenchmarkData.captain(rows, depth));
+    imageResolver = new JsonResolver(BenchmarkData.crewJson(rows));
+  }
+
+  /**
+   * Deletes the generated templates.
+   *
+   * @throws IOException if a template could not be deleted
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(nestedLoopFile);
+    Files.deleteIfExists(imageLoopFile);
+  }
+
+  private static Path writeTemplate(String... paragraphs) throws IOException {
+    Path file = Files.createTempFile("jocument-benchmark-", ".docx");
+    try (var document = new XWPFDocument(); var out = Files.newOutputStream(file)) {
+      for (String paragraph : paragraphs) {
+        document.createParagraph().createRun().setText(paragraph);
+      }
+      document.write(out);
+    }
+    return file;
+  }
+
+  @Benchmark
+  public void scalarReplacement() throws IOException {
+    scalarTemplate.generate(scalarResolver, OutputStream.nullOutputStream());
+  }
+
+  @Benchmark
+  public void loopUnrolling() throws IOException {
+    loopTemplate.generate(loopResolver, OutputStream.nullOutputStream());
+  }
+
+  @Benchmark
+  public void imageInsertion() throws IOException {
+    imageTemplate.generate(imageResolver, OutputStream.nullOutputStream());
+  }
+}
@@ -0,0 +1,54 @@
+package com.docutools.jocument.benchmarks;
+
+import com.docutools.jocument.PlaceholderResolver;
+import com.docutools.jocument.Template;
+import com.docutools.jocument.impl.ReflectionResolver;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Unrolls word loops with many iterations, where the bookkeeping of the body elements dominates the generation time.
+ * Comparing the sizes shows whether the unrolling stays linear in the number of iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WordLoopUnrollingBenchmark {
+
+  @Param({"1000", "10000"})
+  private int iterations;
+
+  private Template template;
+  private PlaceholderResolver resolver;
+
+  /**
+   * Loads the template and generates the data to render.
+   *
+   * @throws IOException if the template could not be read
+   */
+  @Setup
+  public void setup() throws IOException {
+    template = Template.fromClassPath("/templates/word/CollectionsTemplate.docx").orElseThrow().compile();
+    resolver = new ReflectionResolver(BenchmarkData.captain(iterations, 1));
+  }
+
+  @Benchmark
+  public void loopUnrolling() throws IOException {
+    template.generate(resolver, OutputStream.nullOutputStream());
+  }
+}
@@ -1,6 +1,7 @@
 package com.docutools.jocument;
 
 import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This interface defines the publicly accessible methods of documents,
@@ -14,16 +15,16 @@ import java.nio.file.Path;
  * @see Template
  * @since 2020-02-19
  */
-public interface Document {
+public interface Document extends AutoCloseable {
 
   /**
    * This method is used to stop execution on the main thread until the
-   * generation of the document has finished or a specified time has passed,
-   * after which the thread responsible for generation gets interrupted.
+   * generation of the document has finished or a specified time has passed.
+   * Use {@link #toFuture()} to cancel the generation or to get the cause of
+   * a failed generation.
    *
-   * @param time the time to wait before interrupting the process in milliseconds
-   * @throws InterruptedException If document generation has not finished in the
-   *                              allowed time.
+   * @param time the time to wait in milliseconds, 0 to wait without limit
+   * @throws InterruptedException If the waiting thread has been interrupted.
    */
   void blockUntilCompletion(long time) throws InterruptedException;
 
@@ -47,4 +48,24 @@ public interface Document {
    * @return The path to the finished document
    */
   Path getPath();
+
+  /**
+   * Get the {@link java.util.concurrent.CompletableFuture} completed with the path
+   * to the generated document.
+   * If the generation fails, the future completes exceptionally with the original
+   * cause of the failure. Cancelling the future interrupts the generation.
+   *
+   * @return The future of the generated document
+   */
+  CompletableFuture<Path> toFuture();
+
+  /**
+   * Cancels the generation if it is still running. The generated document
+   * itself is kept. The {@link PlaceholderResolver} is not closed, since it
+   * may be shared by several documents; resolvers holding resources, like a
+   * {@link com.docutools.jocument.impl.JsonResolver} with downloaded images,
+   * have to be closed by the caller once their documents are generated.
+   */
+  @Override
+  void close();
 }
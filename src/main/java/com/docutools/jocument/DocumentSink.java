@@ -0,0 +1,38 @@
+package com.docutools.jocument;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Receives the documents generated by {@link Template#generateAll(java.util.stream.Stream, DocumentSink)}.
+ * The sink is called concurrently from the generating threads, once for every document.
+ */
+@FunctionalInterface
+public interface DocumentSink {
+
+  /**
+   * Opens the stream the document of the resolver at {@code index} is written to.
+   *
+   * @param index the position of the resolver in the generated stream, starting with {@code 0}
+   * @return the {@link java.io.OutputStream}, closed by the generation after the document has been written
+   * @throws IOException when the stream could not be opened
+   */
+  OutputStream open(long index) throws IOException;
+
+  /**
+   * A sink writing every document to a file in {@code directory}, named by the index of its resolver and
+   * {@code suffix}, e.g. {@code 42.docx}.
+   *
+   * @param directory the directory, created if it does not exist
+   * @param suffix    the suffix of the file names
+   * @return the {@link DocumentSink}
+   */
+  static DocumentSink toDirectory(Path directory, String suffix) {
+    return index -> {
+      Files.createDirectories(directory);
+      return Files.newOutputStream(directory.resolve(index + suffix));
+    };
+  }
+}
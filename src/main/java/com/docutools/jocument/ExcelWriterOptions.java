@@ -0,0 +1,135 @@
+package com.docutools.jocument;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Settings of the streaming writer generating {@link MimeType#XLSX} documents.
+ * Generated rows are kept in memory up to the row access window, older rows are flushed to temporary files which are
+ * assembled to the document when the generation finishes. Instances are immutable, the {@code with} methods return
+ * modified copies.
+ *
+ * @see Template#withExcelWriterOptions(ExcelWriterOptions)
+ */
+public final class ExcelWriterOptions {
+  /**
+   * The number of rows kept in memory by default.
+   */
+  public static final int DEFAULT_ROW_ACCESS_WINDOW_SIZE = 100;
+
+  private static final ExcelWriterOptions DEFAULTS = new ExcelWriterOptions(DEFAULT_ROW_ACCESS_WINDOW_SIZE, false, false, null);
+
+  private final int rowAccessWindowSize;
+  private final boolean compressTempFiles;
+  private final boolean sharedStringsTable;
+  private final Path tempDirectory;
+
+  private ExcelWriterOptions(int rowAccessWindowSize, boolean compressTempFiles, boolean sharedStringsTable, Path tempDirectory) {
+    this.rowAccessWindowSize = rowAccessWindowSize;
+    this.compressTempFiles = compressTempFiles;
+    this.sharedStringsTable = sharedStringsTable;
+    this.tempDirectory = tempDirectory;
+  }
+
+  /**
+   * The options used if none are configured: a window of {@value #DEFAULT_ROW_ACCESS_WINDOW_SIZE} rows, uncompressed
+   * temporary files, inline strings and the default temporary directory of POI.
+   *
+   * @return the default options
+   */
+  public static ExcelWriterOptions defaults() {
+    return DEFAULTS;
+  }
+
+  /**
+   * Sets the number of rows kept in memory before they are flushed to the temporary files. Larger windows need more
+   * heap, but write less often.
+   *
+   * @param rowAccessWindowSize the number of rows, greater than zero
+   * @return the modified options
+   * @throws IllegalArgumentException if the size is not positive
+   */
+  public ExcelWriterOptions withRowAccessWindowSize(int rowAccessWindowSize) {
+    if (rowAccessWindowSize <= 0) {
+      throw new IllegalArgumentException("The row access window size has to be positive, was " + rowAccessWindowSize);
+    }
+    return new ExcelWriterOptions(rowAccessWindowSize, compressTempFiles, sharedStringsTable, tempDirectory);
+  }
+
+  /**
+   * Sets whether the temporary files of flushed rows are compressed with gzip. This trades CPU time for less disk
+   * I/O, which pays off for wide sheets.
+   *
+   * @param compressTempFiles whether to compress the temporary files
+   * @return the modified options
+   */
+  public ExcelWriterOptions withCompressTempFiles(boolean compressTempFiles) {
+    return new ExcelWriterOptions(rowAccessWindowSize, compressTempFiles, sharedStringsTable, tempDirectory);
+  }
+
+  /**
+   * Sets whether strings are written to a shared strings table instead of inline into the cells. This shrinks
+   * documents with many repeated values, but keeps every distinct string in memory until the generation finishes.
+   *
+   * @param sharedStringsTable whether to use a shared strings table
+   * @return the modified options
+   */
+  public ExcelWriterOptions withSharedStringsTable(boolean sharedStringsTable) {
+    return new ExcelWriterOptions(rowAccessWindowSize, compressTempFiles, sharedStringsTable, tempDirectory);
+  }
+
+  /**
+   * Sets the directory the temporary files of flushed rows are created in, e.g. a volume with more space than the
+   * default temporary directory. Only the files of generations with these options are affected, the
+   * {@link org.apache.poi.util.TempFileCreationStrategy} of POI set by the application stays in place and still creates
+   * the small copy of the workbook the document is assembled from.
+   *
+   * @param tempDirectory the directory, created if it does not exist
+   * @return the modified options
+   */
+  public ExcelWriterOptions withTempDirectory(Path tempDirectory) {
+    return new ExcelWriterOptions(rowAccessWindowSize, compressTempFiles, sharedStringsTable, Objects.requireNonNull(tempDirectory));
+  }
+
+  public int getRowAccessWindowSize() {
+    return rowAccessWindowSize;
+  }
+
+  public boolean isCompressTempFiles() {
+    return compressTempFiles;
+  }
+
+  public boolean isSharedStringsTable() {
+    return sharedStringsTable;
+  }
+
+  public Optional<Path> getTempDirectory() {
+    return Optional.ofNullable(tempDirectory);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof ExcelWriterOptions that)) {
+      return false;
+    }
+    return rowAccessWindowSize == that.rowAccessWindowSize
+        && compressTempFiles == that.compressTempFiles
+        && sharedStringsTable == that.sharedStringsTable
+        && Objects.equals(tempDirectory, that.tempDirectory);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(rowAccessWindowSize, compressTempFiles, sharedStringsTable, tempDirectory);
+  }
+
+  @Override
+  public String toString() {
+    return "ExcelWriterOptions{rowAccessWindowSize=%d, compressTempFiles=%s, sharedStringsTable=%s, tempDirectory=%s}"
+        .formatted(rowAccessWindowSize, compressTempFiles, sharedStringsTable, tempDirectory);
+  }
+}
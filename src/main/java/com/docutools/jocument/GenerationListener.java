@@ -0,0 +1,73 @@
+package com.docutools.jocument;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Receives metrics of document generations, e.g. to export them to a monitoring system.
+ * Listeners are registered with {@link com.docutools.jocument.impl.GenerationListeners#add(GenerationListener)} and
+ * are called on the thread generating the document, so implementations have to be thread safe and fast.
+ *
+ * <p>All methods do nothing by default.</p>
+ *
+ * @see com.docutools.jocument.impl.InMemoryGenerationMetrics
+ */
+public interface GenerationListener {
+
+  /**
+   * Called when the generation of a document starts.
+   *
+   * @param document the document being generated
+   */
+  default void generationStarted(Document document) {
+  }
+
+  /**
+   * Called every time a phase of the generation has been completed.
+   *
+   * @param document the document being generated
+   * @param phase    the completed phase
+   * @param duration the time spent in the phase
+   */
+  default void phaseCompleted(Document document, GenerationPhase phase, Duration duration) {
+  }
+
+  /**
+   * Called for every placeholder filled in the document.
+   *
+   * @param document        the document being generated
+   * @param placeholderName the name of the placeholder
+   * @param resolved        whether the resolver returned data for the placeholder
+   */
+  default void placeholderResolved(Document document, String placeholderName, boolean resolved) {
+  }
+
+  /**
+   * Called when a loop has been unrolled.
+   *
+   * @param document        the document being generated
+   * @param placeholderName the name of the loop placeholder
+   * @param iterations      the number of items the loop body has been rendered for
+   */
+  default void loopUnrolled(Document document, String placeholderName, long iterations) {
+  }
+
+  /**
+   * Called when the generated document has been written.
+   *
+   * @param document the document being generated
+   * @param bytes    the size of the written document in bytes
+   */
+  default void bytesWritten(Document document, long bytes) {
+  }
+
+  /**
+   * Called when the generation of a document has finished.
+   *
+   * @param document the document being generated
+   * @param duration the duration of the whole generation
+   * @param failure  the cause if the generation failed or has been cancelled
+   */
+  default void generationFinished(Document document, Duration duration, Optional<Throwable> failure) {
+  }
+}
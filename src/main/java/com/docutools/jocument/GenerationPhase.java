@@ -0,0 +1,30 @@
+package com.docutools.jocument;
+
+/**
+ * The phases of a document generation reported to {@link GenerationListener}s.
+ * Phases may nest, e.g. placeholders of a loop are resolved while the loop is rendered.
+ *
+ * @see GenerationListener#phaseCompleted(Document, GenerationPhase, java.time.Duration)
+ */
+public enum GenerationPhase {
+  /**
+   * Reading and parsing the template.
+   */
+  PARSING,
+  /**
+   * Resolving a single placeholder with the {@link PlaceholderResolver}.
+   */
+  RESOLUTION,
+  /**
+   * Copying the body of a loop for one of its items.
+   */
+  LOOP_UNROLLING,
+  /**
+   * Preparing and inserting an image.
+   */
+  IMAGE_PROCESSING,
+  /**
+   * Writing the generated document.
+   */
+  WRITING
+}
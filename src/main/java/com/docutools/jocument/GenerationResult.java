@@ -0,0 +1,54 @@
+package com.docutools.jocument;
+
+import java.util.Optional;
+
+/**
+ * The outcome of generating one document of a batch.
+ *
+ * @see Template#generateAll(java.util.stream.Stream, DocumentSink)
+ */
+public final class GenerationResult {
+  private final long index;
+  private final Throwable failure;
+
+  private GenerationResult(long index, Throwable failure) {
+    this.index = index;
+    this.failure = failure;
+  }
+
+  public static GenerationResult succeeded(long index) {
+    return new GenerationResult(index, null);
+  }
+
+  public static GenerationResult failed(long index, Throwable failure) {
+    return new GenerationResult(index, failure);
+  }
+
+  /**
+   * The position of the resolver of the document in the generated stream.
+   *
+   * @return the index, starting with {@code 0}
+   */
+  public long getIndex() {
+    return index;
+  }
+
+  public boolean isSucceeded() {
+    return failure == null;
+  }
+
+  /**
+   * The reason the document could not be generated or written to its sink.
+   *
+   * @return the failure, empty if the document has been generated
+   */
+  public Optional<Throwable> getFailure() {
+    return Optional.ofNullable(failure);
+  }
+
+  @Override
+  public String toString() {
+    return isSucceeded() ? "GenerationResult{index=%d, succeeded}".formatted(index)
+        : "GenerationResult{index=%d, failure=%s}".formatted(index, failure);
+  }
+}
@@ -1,5 +1,6 @@
 package com.docutools.jocument;
 
+import java.util.Optional;
 import java.util.stream.Stream;
 
 /**
@@ -21,6 +22,19 @@ public interface PlaceholderData {
    */
   PlaceholderType getType();
 
+  /**
+   * The unformatted value of the placeholder, e.g. a {@link Number}, {@link Boolean} or
+   * {@link java.time.temporal.Temporal}. Document formats with typed values, like the cells of excel reports, insert it
+   * instead of the formatted {@link this#toString()}.
+   *
+   * <p>Only used when {@link this#getType()} returns {@link com.docutools.jocument.PlaceholderType#SCALAR}.</p>
+   *
+   * @return the value, empty if the placeholder should be inserted as text
+   */
+  default Optional<Object> getValue() {
+    return Optional.empty();
+  }
+
   /**
    * Streams the items represented as {@link com.docutools.jocument.PlaceholderResolver}s.
    *
@@ -38,6 +52,7 @@ public interface PlaceholderData {
    * <p>Only used when {@link this#getType()} returns {@link com.docutools.jocument.PlaceholderType#SET}.</p>
    *
    * @return count of {@link com.docutools.jocument.PlaceholderResolver}s
+   * @throws UnsupportedOperationException if the count is unknown before streaming the items, e.g. for streamed data
    */
   default long count() {
     throw new UnsupportedOperationException();
@@ -0,0 +1,124 @@
+package com.docutools.jocument;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The placeholders used by a {@link Template}, found by scanning the template once. Callers can use the index to
+ * prefetch exactly the data a template needs, or to check a {@link PlaceholderResolver} before generating a document.
+ *
+ * <p>Placeholders are structured like the generation resolves them: the placeholders of a loop body are resolved by
+ * the resolvers of the loop items, so they are listed by their {@link Loop} instead of the template.</p>
+ *
+ * @see Template#placeholders()
+ */
+public interface PlaceholderIndex {
+
+  /**
+   * Get the names of all placeholders and loops of the template, including the ones in loop bodies, in order of
+   * appearance.
+   *
+   * @return the names
+   */
+  Set<String> getNames();
+
+  /**
+   * Get where the placeholder or loop with the given name is used in the template.
+   *
+   * @param name the name of the placeholder
+   * @return the locations in order of appearance, empty if the template does not use the placeholder
+   */
+  List<Location> getLocations(String name);
+
+  /**
+   * Get the names of the placeholders resolved by the resolver of the document, excluding loops.
+   *
+   * @return the names in order of appearance
+   */
+  Set<String> getPlaceholders();
+
+  /**
+   * Get the loops resolved by the resolver of the document.
+   *
+   * @return the loops in order of appearance
+   */
+  List<Loop> getLoops();
+
+  /**
+   * Get the names of the placeholders handled by the given registry. Only placeholders filling a whole paragraph of a
+   * word template are considered, since other custom placeholders are not transformed.
+   *
+   * @param registry the {@link CustomPlaceholderRegistry} used for generating documents
+   * @return the names in order of appearance
+   */
+  Set<String> getCustomPlaceholders(CustomPlaceholderRegistry registry);
+
+  /**
+   * Get the names of the placeholders and loops the given resolver can not resolve, e.g. to fail before generating a
+   * document with missing data. Only the placeholders resolved by the resolver of the document are checked, since
+   * loop items are only known while generating. Since the names are resolved like when generating, data which can
+   * only be consumed once, like a {@link java.util.stream.Stream}, should be checked with a resolver of its own.
+   *
+   * @param resolver the resolver to check
+   * @return the names in order of appearance, empty if all placeholders can be resolved
+   */
+  Set<String> findUnresolved(PlaceholderResolver resolver);
+
+  /**
+   * A loop of a template, repeating its body for every item.
+   */
+  interface Loop {
+
+    String getName();
+
+    /**
+     * Get the location of the loop start.
+     *
+     * @return the {@link Location}
+     */
+    Location getLocation();
+
+    /**
+     * Get the names of the placeholders of the loop body resolved by the items, excluding nested loops.
+     *
+     * @return the names in order of appearance
+     */
+    Set<String> getPlaceholders();
+
+    /**
+     * Get the loops nested in the loop body.
+     *
+     * @return the loops in order of appearance
+     */
+    List<Loop> getLoops();
+  }
+
+  /**
+   * The location of a placeholder in a template.
+   */
+  interface Location {
+
+    /**
+     * Get the name of the sheet of an excel template.
+     *
+     * @return the sheet name, empty for word templates
+     */
+    Optional<String> getSheet();
+
+    /**
+     * Get the position of the top level body element of a word template, or the row number of an excel template.
+     *
+     * @return the position, starting with {@code 0}
+     */
+    int getPosition();
+
+    /**
+     * Check whether the placeholder fills a whole paragraph of a word template, which is required for custom
+     * placeholders and pictures, or a whole cell of an excel template, which is required for typed cells.
+     *
+     * @return {@code true} if the paragraph or cell consists of the placeholder only
+     */
+    boolean isStandalone();
+  }
+}
@@ -1,5 +1,6 @@
 package com.docutools.jocument;
 
+import com.docutools.jocument.impl.CachingPlaceholderResolver;
 import java.util.Locale;
 import java.util.Optional;
 import org.apache.poi.util.LocaleUtil;
@@ -34,4 +35,15 @@ public interface PlaceholderResolver {
    */
   Optional<PlaceholderData> resolve(String placeholderName, Locale locale);
 
+  /**
+   * Wraps this resolver into one which memoizes the resolved data per placeholder name and locale, for templates
+   * using the same placeholders many times.
+   * Create a new caching resolver for each generation, since cached data is never invalidated.
+   *
+   * @return the caching resolver
+   * @see com.docutools.jocument.impl.CachingPlaceholderResolver
+   */
+  default CachingPlaceholderResolver cached() {
+    return new CachingPlaceholderResolver(this);
+  }
 }
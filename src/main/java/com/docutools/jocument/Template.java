@@ -1,18 +1,29 @@
 package com.docutools.jocument;
 
+import com.docutools.jocument.impl.BatchGenerator;
+import com.docutools.jocument.impl.GenerationExecutors;
 import com.docutools.jocument.impl.TemplateImpl;
 import com.docutools.jocument.impl.template.InMemoryTemplateSource;
 import com.docutools.jocument.impl.template.PathTemplateSource;
 import com.docutools.jocument.impl.template.URLTemplateSource;
+import com.docutools.jocument.impl.word.WordMailMerge;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 import org.apache.poi.util.LocaleUtil;
 
 /**
@@ -193,13 +204,164 @@ public interface Template {
   Locale getLocale();
 
   /**
-   * Starts the generation of a document for the given {@link com.docutools.jocument.PlaceholderResolver} asynchronously.
+   * Gets the settings of the writer generating {@link MimeType#XLSX} documents from this template.
+   *
+   * @return the {@link com.docutools.jocument.ExcelWriterOptions}, {@link ExcelWriterOptions#defaults()} if none are set
+   */
+  ExcelWriterOptions getExcelWriterOptions();
+
+  /**
+   * Creates a copy of this template which generates {@link MimeType#XLSX} documents with the given settings, e.g. a
+   * larger row window or compressed temporary files for wide sheets. A compiled template stays compiled.
+   *
+   * @param options the {@link com.docutools.jocument.ExcelWriterOptions}
+   * @return the configured {@link Template}
+   */
+  Template withExcelWriterOptions(ExcelWriterOptions options);
+
+  /**
+   * Starts the generation of a document for the given {@link com.docutools.jocument.PlaceholderResolver} asynchronously
+   * on the default executor of {@link com.docutools.jocument.impl.GenerationExecutors}.
    *
    * @param resolver the {@link com.docutools.jocument.PlaceholderResolver}
    * @return the {@link Document}
    */
   Document startGeneration(PlaceholderResolver resolver);
 
+  /**
+   * Starts the generation of a document for the given {@link com.docutools.jocument.PlaceholderResolver} asynchronously
+   * on the given {@link java.util.concurrent.Executor}, which can be used to bound the number of concurrent generations.
+   *
+   * @param resolver the {@link com.docutools.jocument.PlaceholderResolver}
+   * @param executor the {@link java.util.concurrent.Executor} to generate the document on
+   * @return the {@link Document}
+   * @throws java.util.concurrent.RejectedExecutionException when the executor does not accept the generation
+   */
+  Document startGeneration(PlaceholderResolver resolver, Executor executor);
+
+  /**
+   * Generates a document for the given {@link com.docutools.jocument.PlaceholderResolver} asynchronously on the
+   * default executor.
+   *
+   * @param resolver the {@link com.docutools.jocument.PlaceholderResolver}
+   * @return the future path of the generated document
+   * @see Document#toFuture()
+   */
+  default CompletableFuture<Path> generateAsync(PlaceholderResolver resolver) {
+    return startGeneration(resolver).toFuture();
+  }
+
+  /**
+   * Generates a document for the given {@link com.docutools.jocument.PlaceholderResolver} asynchronously on the
+   * given {@link java.util.concurrent.Executor}.
+   *
+   * @param resolver the {@link com.docutools.jocument.PlaceholderResolver}
+   * @param executor the {@link java.util.concurrent.Executor} to generate the document on
+   * @return the future path of the generated document
+   * @see Document#toFuture()
+   */
+  default CompletableFuture<Path> generateAsync(PlaceholderResolver resolver, Executor executor) {
+    return startGeneration(resolver, executor).toFuture();
+  }
+
+  /**
+   * Generates a document for the given {@link com.docutools.jocument.PlaceholderResolver} on the calling thread and
+   * writes it directly to the given {@link java.io.OutputStream}, without creating a temporary file.
+   *
+   * @param resolver the {@link com.docutools.jocument.PlaceholderResolver}
+   * @param out      the {@link java.io.OutputStream} to write the document to, not closed by this method
+   * @throws IOException when the template could not be read or the document could not be written
+   */
+  void generate(PlaceholderResolver resolver, OutputStream out) throws IOException;
+
+  /**
+   * Generates a document for the given {@link com.docutools.jocument.PlaceholderResolver} on the calling thread and
+   * writes it directly to the given {@link java.nio.channels.WritableByteChannel}, without creating a temporary file.
+   *
+   * @param resolver the {@link com.docutools.jocument.PlaceholderResolver}
+   * @param channel  the {@link java.nio.channels.WritableByteChannel} to write the document to, not closed by this method
+   * @throws IOException when the template could not be read or the document could not be written
+   */
+  default void generate(PlaceholderResolver resolver, WritableByteChannel channel) throws IOException {
+    var out = new BufferedOutputStream(Channels.newOutputStream(channel));
+    generate(resolver, out);
+    out.flush();
+  }
+
+  /**
+   * Generates a document for every {@link com.docutools.jocument.PlaceholderResolver} of {@code resolvers} and writes
+   * it to the {@link DocumentSink}, on a pool of {@link com.docutools.jocument.impl.GenerationExecutors#defaultThreads()}
+   * threads.
+   *
+   * @param resolvers the resolvers, consumed lazily and closed after the batch
+   * @param sink      the {@link DocumentSink} the documents are written to
+   * @return the {@link GenerationResult}s in the order of {@code resolvers}
+   * @throws IOException          when the template could not be read or parsed
+   * @throws InterruptedException when the calling thread has been interrupted while waiting for the documents
+   * @see #generateAll(Stream, DocumentSink, int)
+   */
+  default List<GenerationResult> generateAll(Stream<PlaceholderResolver> resolvers, DocumentSink sink)
+      throws IOException, InterruptedException {
+    return generateAll(resolvers, sink, GenerationExecutors.defaultThreads());
+  }
+
+  /**
+   * Generates a document for every {@link com.docutools.jocument.PlaceholderResolver} of {@code resolvers} and writes
+   * it to the {@link DocumentSink}. The template is compiled once and shared by all documents, which are generated on
+   * a pool of {@code parallelism} threads. A failing document is reported in its {@link GenerationResult} and does not
+   * abort the batch. Resolvers which are {@link AutoCloseable} are closed after their document has been generated.
+   *
+   * @param resolvers   the resolvers, consumed lazily and closed after the batch
+   * @param sink        the {@link DocumentSink} the documents are written to
+   * @param parallelism the number of documents generated at the same time
+   * @return the {@link GenerationResult}s in the order of {@code resolvers}
+   * @throws IOException          when the template could not be read or parsed
+   * @throws InterruptedException when the calling thread has been interrupted, the pending documents are cancelled
+   */
+  default List<GenerationResult> generateAll(Stream<PlaceholderResolver> resolvers, DocumentSink sink, int parallelism)
+      throws IOException, InterruptedException {
+    return BatchGenerator.generateAll(this, resolvers, sink, parallelism);
+  }
+
+  /**
+   * Generates a document for every {@link com.docutools.jocument.PlaceholderResolver} of {@code resolvers} and writes
+   * them merged into a single document to {@code out}, e.g. to print one letter per customer. Each document starts in
+   * a new section on a new page, with the page settings of the template. Resolvers which are {@link AutoCloseable} are
+   * closed after their document has been generated. Only supported for {@link MimeType#DOCX}.
+   *
+   * <p>The merged document is held in memory until it is written after the last item, so the memory needed grows
+   * linearly with the number and size of the documents. Split very large merges into several calls.</p>
+   *
+   * @param resolvers the resolvers, consumed lazily and closed afterwards
+   * @param out       the {@link java.io.OutputStream} to write the merged document to, not closed by this method
+   * @throws IOException when the template could not be read or the document could not be written
+   * @see com.docutools.jocument.impl.word.WordMailMerge
+   */
+  default void mergeAll(Stream<PlaceholderResolver> resolvers, OutputStream out) throws IOException {
+    WordMailMerge.merge(this, resolvers, out);
+  }
+
+  /**
+   * Compiles this template into an in-memory representation, which is parsed and analysed only once and then reused
+   * for every {@link Document} generated from it. Use this for templates which are rendered repeatedly.
+   * Calling this method on an already compiled template returns the template itself.
+   *
+   * @return the compiled {@link Template}
+   * @throws IOException when the template could not be read or parsed
+   */
+  Template compile() throws IOException;
+
+  /**
+   * Gets the index of the placeholders and loops used by this template, e.g. to prefetch exactly the data needed or to
+   * fail before generating a document with missing data. A compiled template builds the index once and keeps it,
+   * other templates parse the template file on every call.
+   *
+   * @return the {@link PlaceholderIndex}
+   * @throws IOException when the template could not be read or parsed
+   * @see #compile()
+   */
+  PlaceholderIndex placeholders() throws IOException;
+
   /**
    * Opens a {@link java.io.InputStream} to the template file. Intended for internal use.
    *
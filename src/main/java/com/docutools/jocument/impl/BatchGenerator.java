@@ -0,0 +1,113 @@
+package com.docutools.jocument.impl;
+
+import com.docutools.jocument.DocumentSink;
+import com.docutools.jocument.GenerationResult;
+import com.docutools.jocument.PlaceholderResolver;
+import com.docutools.jocument.Template;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Generates documents for a stream of resolvers from one template, on a pool of a fixed number of threads.
+ * The template is compiled once and shared by all documents. Resolvers are taken from the stream only when a thread
+ * is about to become free, so large or lazily loaded streams are not buffered in memory.
+ *
+ * @see Template#generateAll(Stream, DocumentSink, int)
+ */
+public final class BatchGenerator {
+  private static final Logger logger = LogManager.getLogger();
+
+  private BatchGenerator() {
+  }
+
+  /**
+   * Generates a document for every resolver of {@code resolvers} and writes it to {@code sink}. A failing document is
+   * reported in its result and does not abort the batch, even if it failed with an {@link Error}. Resolvers which are
+   * {@link AutoCloseable} are closed after their document has been generated.
+   *
+   * @param template    the template to generate the documents from
+   * @param resolvers   the resolvers, closed after the batch
+   * @param sink        the sink the documents are written to
+   * @param parallelism the number of documents generated at the same time
+   * @return the results in the order of the resolvers
+   * @throws IOException          when the template could not be compiled
+   * @throws InterruptedException when the calling thread has been interrupted, the pending documents are cancelled
+   */
+  public static List<GenerationResult> generateAll(Template template, Stream<PlaceholderResolver> resolvers, DocumentSink sink, int parallelism)
+      throws IOException, InterruptedException {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("The parallelism has to be positive, was " + parallelism);
+    }
+    logger.info("Starting batch generation from template {} on {} threads", template, parallelism);
+    var compiled = template.compile();
+    var pool = GenerationExecutors.newFixedPool(parallelism);
+    // Keeps every thread busy while bounding the resolvers taken from the stream
+    var slots = new Semaphore(parallelism * 2);
+    List<CompletableFuture<GenerationResult>> results = new ArrayList<>();
+    try (resolvers) {
+      long index = 0;
+      for (Iterator<PlaceholderResolver> it = resolvers.iterator(); it.hasNext(); index++) {
+        slots.acquire();
+        var resolver = it.next();
+        var documentIndex = index;
+        results.add(CompletableFuture.supplyAsync(() -> generate(compiled, resolver, sink, documentIndex), pool)
+            .whenComplete((result, e) -> slots.release()));
+      }
+      List<GenerationResult> generated = new ArrayList<>(results.size());
+      for (int i = 0; i < results.size(); i++) {
+        generated.add(await(results.get(i), i));
+      }
+      logger.info("Finished batch generation of {} documents from template {}, {} failed", generated.size(), template,
+          generated.stream().filter(result -> !result.isSucceeded()).count());
+      return generated;
+    } catch (InterruptedException e) {
+      logger.info("Cancelling batch generation from template {}", template);
+      results.forEach(result -> result.cancel(true));
+      throw e;
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private static GenerationResult await(Future<GenerationResult> result, long index) throws InterruptedException {
+    try {
+      return result.get();
+    } catch (ExecutionException e) {
+      // Only errors escape the generation of a document, they fail the document like exceptions do
+      logger.warn("Failed generating document %d of batch".formatted(index), e.getCause());
+      return GenerationResult.failed(index, e.getCause());
+    }
+  }
+
+  private static GenerationResult generate(Template template, PlaceholderResolver resolver, DocumentSink sink, long index) {
+    logger.debug("Generating document {} of batch", index);
+    try (var out = sink.open(index)) {
+      template.generate(resolver, out);
+      return GenerationResult.succeeded(index);
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Failed generating document %d of batch".formatted(index), e);
+      return GenerationResult.failed(index, e);
+    } finally {
+      closeResolver(resolver);
+    }
+  }
+
+  private static void closeResolver(PlaceholderResolver resolver) {
+    if (resolver instanceof AutoCloseable closeable) {
+      try {
+        closeable.close();
+      } catch (Exception e) {
+        logger.warn("Could not close resolver %s".formatted(resolver), e);
+      }
+    }
+  }
+}
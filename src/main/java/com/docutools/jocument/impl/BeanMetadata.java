@@ -0,0 +1,163 @@
+package com.docutools.jocument.impl;
+
+import com.docutools.jocument.annotations.Format;
+import com.docutools.jocument.annotations.Image;
+import com.docutools.jocument.annotations.Money;
+import com.docutools.jocument.annotations.Numeric;
+import com.docutools.jocument.annotations.Percentage;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import org.apache.commons.beanutils.MethodUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The reflective information {@link ReflectionResolver} needs about a bean class, collected once per class and shared
+ * by all resolvers. For every readable property it holds a {@link java.lang.invoke.MethodHandle} to the getter and the
+ * formatting annotations of the equally named field.
+ *
+ * @see ReflectionResolver
+ */
+final class BeanMetadata {
+  private static final Logger logger = LogManager.getLogger();
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+  private static final ClassValue<BeanMetadata> CACHE = new ClassValue<>() {
+    @Override
+    protected BeanMetadata computeValue(Class<?> type) {
+      return new BeanMetadata(type);
+    }
+  };
+
+  private final Map<String, PropertyMetadata> properties;
+
+  private BeanMetadata(Class<?> type) {
+    logger.debug("Collecting bean metadata of {}", type);
+    this.properties = collectProperties(type);
+  }
+
+  /**
+   * Get the metadata of the given class, collecting it on first access.
+   *
+   * @param type The bean class
+   * @return The metadata of the class
+   */
+  static BeanMetadata of(Class<?> type) {
+    return CACHE.get(type);
+  }
+
+  /**
+   * Get the metadata of the property with the given name.
+   *
+   * @param name The name of the property
+   * @return The metadata, if the class has a public getter for the property
+   */
+  Optional<PropertyMetadata> property(String name) {
+    return Optional.ofNullable(properties.get(name));
+  }
+
+  private static Map<String, PropertyMetadata> collectProperties(Class<?> type) {
+    var properties = new HashMap<String, PropertyMetadata>();
+    try {
+      for (PropertyDescriptor descriptor : Introspector.getBeanInfo(type).getPropertyDescriptors()) {
+        var readMethod = MethodUtils.getAccessibleMethod(type, descriptor.getReadMethod());
+        if (readMethod == null) {
+          continue;
+        }
+        try {
+          var getter = MethodHandles.publicLookup().unreflect(readMethod).asType(GETTER_TYPE);
+          properties.put(descriptor.getName(), new PropertyMetadata(type, descriptor.getName(), getter));
+        } catch (IllegalAccessException e) {
+          logger.debug("Getter of property {} of {} is not accessible", descriptor.getName(), type);
+        }
+      }
+    } catch (IntrospectionException e) {
+      logger.warn("Could not introspect %s".formatted(type), e);
+    }
+    return properties;
+  }
+
+  private static DateTimeFormatter toDateTimeFormatter(Format format) {
+    var formatter = DateTimeFormatter.ofPattern(format.value());
+    if (!format.zone().isBlank()) {
+      formatter = formatter.withZone(ZoneId.of(format.zone()));
+    }
+    if (!format.locale().isBlank()) {
+      formatter = formatter.withLocale(Locale.forLanguageTag(format.locale()));
+    }
+    return formatter;
+  }
+
+  /**
+   * The getter and formatting annotations of one bean property.
+   */
+  static final class PropertyMetadata {
+    private final MethodHandle getter;
+    private final Annotation numberFormat;
+    private final Image image;
+    private final DateTimeFormatter dateTimeFormatter;
+
+    private PropertyMetadata(Class<?> type, String name, MethodHandle getter) {
+      this.getter = getter;
+      this.numberFormat = ReflectionUtils.findFieldAnnotation(type, name, Percentage.class)
+          .<Annotation>map(Function.identity())
+          .or(() -> ReflectionUtils.findFieldAnnotation(type, name, Money.class))
+          .or(() -> ReflectionUtils.findFieldAnnotation(type, name, Numeric.class))
+          .orElse(null);
+      this.image = ReflectionUtils.findFieldAnnotation(type, name, Image.class).orElse(null);
+      this.dateTimeFormatter = ReflectionUtils.findFieldAnnotation(type, name, Format.class)
+          .map(BeanMetadata::toDateTimeFormatter)
+          .orElse(null);
+    }
+
+    /**
+     * Reads the property from the given bean.
+     *
+     * @param bean The bean, an instance of the class this property belongs to
+     * @return The value of the property
+     * @throws InvocationTargetException If the getter throws an exception
+     */
+    Object get(Object bean) throws InvocationTargetException {
+      try {
+        return (Object) getter.invokeExact(bean);
+      } catch (Throwable e) {
+        throw new InvocationTargetException(e);
+      }
+    }
+
+    /**
+     * Get the annotation defining how the numeric property is formatted, in the order of precedence
+     * {@link Percentage}, {@link Money}, {@link Numeric}.
+     *
+     * @return The annotation, if the property is annotated
+     */
+    Optional<Annotation> getNumberFormat() {
+      return Optional.ofNullable(numberFormat);
+    }
+
+    Optional<Image> getImage() {
+      return Optional.ofNullable(image);
+    }
+
+    /**
+     * Get the formatter built from the {@link Format} annotation of the property.
+     *
+     * @return The formatter, if the property is annotated
+     */
+    Optional<DateTimeFormatter> getDateTimeFormatter() {
+      return Optional.ofNullable(dateTimeFormatter);
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package com.docutools.jocument.impl;
+
+import com.docutools.jocument.PlaceholderData;
+import com.docutools.jocument.PlaceholderResolver;
+import com.docutools.jocument.PlaceholderType;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Memoizes the {@link com.docutools.jocument.PlaceholderData} resolved by another resolver per placeholder name and
+ * {@link java.util.Locale}, so placeholders used many times, like {@code {{customer.address.city}}}, are resolved once.
+ *
+ * <p>The cache lives as long as this resolver, i.e. one generation if a new one is created for each. The items of a
+ * {@link com.docutools.jocument.PlaceholderType#SET} get their own caching resolvers, so every loop iteration is a
+ * scope of its own. Sets themselves are not cached, since they may only be streamable once.</p>
+ *
+ * @see PlaceholderResolver#cached()
+ */
+public class CachingPlaceholderResolver implements PlaceholderResolver {
+  private static final Logger logger = LogManager.getLogger();
+
+  private final PlaceholderResolver delegate;
+  private final ResolutionStats stats;
+  private final Map<CacheKey, Optional<PlaceholderData>> cache = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a caching resolver for {@code delegate}.
+   *
+   * @param delegate the resolver to cache the results of
+   */
+  public CachingPlaceholderResolver(PlaceholderResolver delegate) {
+    this(delegate, new ResolutionStats());
+  }
+
+  private CachingPlaceholderResolver(PlaceholderResolver delegate, ResolutionStats stats) {
+    this.delegate = delegate;
+    this.stats = stats;
+  }
+
+  @Override
+  public Optional<PlaceholderData> resolve(String placeholderName, Locale locale) {
+    var key = new CacheKey(placeholderName, locale);
+    var cached = cache.get(key);
+    if (cached != null) {
+      stats.recordHit();
+      return cached;
+    }
+    stats.recordMiss();
+    var resolved = delegate.resolve(placeholderName, locale);
+    if (resolved.isPresent() && resolved.get().getType() == PlaceholderType.SET) {
+      logger.debug("Not caching set {}", placeholderName);
+      return resolved.map(CachingSetPlaceholderData::new);
+    }
+    cache.putIfAbsent(key, resolved);
+    return resolved;
+  }
+
+  @Override
+  public CachingPlaceholderResolver cached() {
+    return this;
+  }
+
+  /**
+   * Get the hit and miss counts of this resolver and the resolvers of all loop items it created.
+   *
+   * @return the stats
+   */
+  public ResolutionStats getStats() {
+    return stats;
+  }
+
+  private class CachingSetPlaceholderData implements PlaceholderData {
+    private final PlaceholderData set;
+
+    private CachingSetPlaceholderData(PlaceholderData set) {
+      this.set = set;
+    }
+
+    @Override
+    public PlaceholderType getType() {
+      return PlaceholderType.SET;
+    }
+
+    @Override
+    public Stream<PlaceholderResolver> stream() {
+      return set.stream()
+          .map(item -> new CachingPlaceholderResolver(item, stats));
+    }
+
+    @Override
+    public long count() {
+      return set.count();
+    }
+
+    @Override
+    public String toString() {
+      return set.toString();
+    }
+  }
+
+  private static final class CacheKey {
+    private final String placeholderName;
+    private final Locale locale;
+
+    private CacheKey(String placeholderName, Locale locale) {
+      this.placeholderName = placeholderName;
+      this.locale = locale;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      CacheKey cacheKey = (CacheKey) o;
+      return placeholderName.equals(cacheKey.placeholderName) && Objects.equals(locale, cacheKey.locale);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(placeholderName, locale);
+    }
+  }
+}
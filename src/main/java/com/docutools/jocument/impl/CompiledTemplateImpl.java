@@ -0,0 +1,85 @@
+package com.docutools.jocument.impl;
+
+import com.docutools.jocument.ExcelWriterOptions;
+import com.docutools.jocument.MimeType;
+import com.docutools.jocument.PlaceholderIndex;
+import com.docutools.jocument.Template;
+import com.docutools.jocument.impl.excel.util.ExcelUtils;
+import com.docutools.jocument.impl.template.InMemoryTemplateSource;
+import com.docutools.jocument.impl.word.WordTemplateStructure;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Optional;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * A {@link Template} which keeps the template data in memory and analyses it once on creation, so the results can be
+ * shared by all {@link com.docutools.jocument.Document}s generated from it.
+ *
+ * @see Template#compile()
+ */
+public class CompiledTemplateImpl extends TemplateImpl {
+  private static final Logger logger = LogManager.getLogger();
+
+  private final byte[] data;
+  private final WordTemplateStructure wordStructure;
+  private final PlaceholderIndex placeholderIndex;
+
+  /**
+   * Compiles the template {@code data}.
+   *
+   * @param data     The raw template file
+   * @param mimeType The mime type of the template and the document to generate
+   * @param locale   The locale to use when generating the report
+   * @throws IOException If the template could not be parsed
+   */
+  public CompiledTemplateImpl(byte[] data, MimeType mimeType, Locale locale) throws IOException {
+    super(new InMemoryTemplateSource(data), mimeType, locale);
+    this.data = data;
+    if (mimeType == MimeType.DOCX) {
+      try (var in = openStream()) {
+        this.wordStructure = WordTemplateStructure.analyse(in);
+      }
+      this.placeholderIndex = wordStructure.getPlaceholderIndex();
+    } else {
+      this.wordStructure = null;
+      try (var in = openStream(); var workbook = new XSSFWorkbook(in)) {
+        this.placeholderIndex = ExcelUtils.indexPlaceholders(workbook);
+      }
+    }
+    logger.info("Compiled template of {} bytes with mime type {}", data.length, mimeType);
+  }
+
+  private CompiledTemplateImpl(CompiledTemplateImpl compiled, ExcelWriterOptions excelWriterOptions) {
+    super(new InMemoryTemplateSource(compiled.data), compiled.getMimeType(), compiled.getLocale(), excelWriterOptions);
+    this.data = compiled.data;
+    this.wordStructure = compiled.wordStructure;
+    this.placeholderIndex = compiled.placeholderIndex;
+  }
+
+  @Override
+  public Template compile() {
+    return this;
+  }
+
+  @Override
+  public PlaceholderIndex placeholders() {
+    return placeholderIndex;
+  }
+
+  @Override
+  public CompiledTemplateImpl withExcelWriterOptions(ExcelWriterOptions options) {
+    return new CompiledTemplateImpl(this, options);
+  }
+
+  /**
+   * Get the structure of the word template recorded at compile time.
+   *
+   * @return The structure if this is a {@link MimeType#DOCX} template
+   */
+  public Optional<WordTemplateStructure> getWordStructure() {
+    return Optional.ofNullable(wordStructure);
+  }
+}
@@ -4,12 +4,21 @@ import com.docutools.jocument.Document;
 import com.docutools.jocument.PlaceholderResolver;
 import com.docutools.jocument.Template;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Pattern;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.poi.util.LocaleUtil;
 
-public abstract class DocumentImpl extends Thread implements Document {
+public abstract class DocumentImpl implements Document, Runnable {
   public static final String GERMAN_SPECIAL_CHARACTERS = "ÄäÖöÜüß";
   public static final Pattern TAG_PATTERN = Pattern.compile("\\{\\{([A-Za-z0-9[" + GERMAN_SPECIAL_CHARACTERS + "]-/#\\.]+?)}}");
   public static final Pattern LOOP_END_PATTERN = Pattern.compile("\\{\\{/([A-Za-z0-9[" + GERMAN_SPECIAL_CHARACTERS + "]-/#\\.]+?)}}");
@@ -17,44 +26,222 @@ public abstract class DocumentImpl extends Thread implements Document {
   protected final Template template;
   protected final PlaceholderResolver resolver;
 
-  private boolean complete = false;
-  private Path path;
+  private final String fileSuffix;
+  private final GenerationFuture result = new GenerationFuture();
 
-  public DocumentImpl(Template template, PlaceholderResolver resolver) {
+  /**
+   * Create a new document, generated from {@code template} with {@code resolver}.
+   *
+   * @param template   The template to generate the document from
+   * @param resolver   The resolver to fill the placeholders with
+   * @param fileSuffix The suffix of the file the document is generated to
+   */
+  protected DocumentImpl(Template template, PlaceholderResolver resolver, String fileSuffix) {
     this.template = template;
     this.resolver = resolver;
+    this.fileSuffix = fileSuffix;
   }
 
-  protected abstract Path generate() throws IOException;
+  /**
+   * Aborts the generation running on the current thread if its {@link Document} has been cancelled.
+   * Generators call this between units of work, since POI itself does not react to interrupts.
+   *
+   * @throws CancellationException if the current thread has been interrupted
+   */
+  public static void checkCancellation() {
+    if (Thread.currentThread().isInterrupted()) {
+      throw new CancellationException("Document generation has been cancelled.");
+    }
+  }
+
+  /**
+   * Generates the document and writes it to {@code out}.
+   *
+   * @param out The stream to write the document to, not closed by this method
+   * @throws IOException If reading the template or writing the document fails
+   */
+  protected abstract void generate(OutputStream out) throws IOException;
+
+  /**
+   * Generates the document to a new temporary file.
+   *
+   * @return The path to the generated document
+   * @throws IOException If reading the template or writing the document fails
+   */
+  protected Path generate() throws IOException {
+    Path file = Files.createTempFile("document", fileSuffix);
+    try (OutputStream out = Files.newOutputStream(file)) {
+      generate(out);
+    }
+    return file;
+  }
+
+  /**
+   * Generates the document on the calling thread and writes it to {@code out}, without creating a temporary file.
+   * The user locale of the calling thread is restored afterwards.
+   *
+   * @param out The stream to write the document to, not closed by this method
+   * @throws IOException If reading the template or writing the document fails
+   */
+  public void generateTo(OutputStream out) throws IOException {
+    var userLocale = LocaleUtil.getUserLocale();
+    try {
+      reportGeneration(() -> {
+        logger.info("Starting generating document to stream with template {} and resolver {}", template, resolver);
+        generate(out);
+        logger.info("Finished generating document to stream with template {} and resolver {}", template, resolver);
+        return out;
+      });
+    } finally {
+      LocaleUtil.setUserLocale(userLocale);
+    }
+  }
+
+  /**
+   * Runs {@code generation} on the calling thread and reports it to the {@link GenerationListeners} as the generation
+   * of this document, e.g. for generations which do not write the document on their own.
+   *
+   * @param generation The generation of this document
+   * @param <T>        The type of the generation result
+   * @return The result of {@code generation}
+   * @throws IOException If the generation fails reading or writing
+   */
+  protected <T> T reportGeneration(GenerationStep<T> generation) throws IOException {
+    long start = GenerationListeners.generationStarted(this);
+    Optional<Throwable> failure = Optional.empty();
+    try {
+      return generation.run();
+    } catch (IOException | RuntimeException e) {
+      failure = Optional.of(e);
+      throw e;
+    } finally {
+      GenerationListeners.generationFinished(start, failure);
+    }
+  }
 
   @Override
   public void run() {
+    if (!result.start(Thread.currentThread())) {
+      logger.info("Skipping generation with template {} and resolver {}, since it has been cancelled", template, resolver);
+      return;
+    }
+    var userLocale = LocaleUtil.getUserLocale();
+    // Listeners are notified before the future completes, so waiting callers see the final metrics
+    long start = GenerationListeners.generationStarted(this);
     try {
-      logger.info("Starting generating document from path {} with template {} and resolver {}", path, template, resolver);
-      this.path = generate();
-      logger.info("Finished generating document from path {} with template {} and resolver {}", path, template, resolver);
-    } catch (IOException e) {
-      logger
-          .error("Encountered IOException when generating document from path %s with template %s and resolver %s".formatted(path, template, resolver),
-              e);
-      throw new IllegalStateException("Got IOException when generating, probably due to template.", e);
+      logger.info("Starting generating document with template {} and resolver {}", template, resolver);
+      var path = generate();
+      logger.info("Finished generating document to path {} with template {} and resolver {}", path, template, resolver);
+      GenerationListeners.generationFinished(start, Optional.empty());
+      result.complete(path);
+    } catch (CancellationException e) {
+      logger.info("Cancelled generating document with template {} and resolver {}", template, resolver);
+      GenerationListeners.generationFinished(start, Optional.of(e));
+      result.completeExceptionally(e);
+    } catch (IOException | RuntimeException e) {
+      logger.error("Failed generating document with template %s and resolver %s".formatted(template, resolver), e);
+      GenerationListeners.generationFinished(start, Optional.of(e));
+      result.completeExceptionally(e);
+    } finally {
+      // The task may run on a pooled thread or on the thread of the caller, so only the state set by the generation
+      // is undone: the locale of the template and the interrupt of a cancellation
+      LocaleUtil.setUserLocale(userLocale);
+      if (result.finish()) {
+        Thread.interrupted();
+      }
     }
-    complete = true;
   }
 
   @Override
   public void blockUntilCompletion(long millis) throws InterruptedException {
     logger.info("Waiting for completion for {} milliseconds", millis);
-    super.join(millis);
+    try {
+      if (millis == 0) {
+        result.get();
+      } else {
+        result.get(millis, TimeUnit.MILLISECONDS);
+      }
+    } catch (ExecutionException e) {
+      logger.warn("Document generation failed", e.getCause());
+    } catch (CancellationException e) {
+      logger.warn("Document generation has been cancelled");
+    } catch (TimeoutException e) {
+      logger.warn("Document generation did not complete within {} milliseconds", millis);
+    }
   }
 
   @Override
   public boolean completed() {
-    return complete;
+    return result.isDone() && !result.isCompletedExceptionally();
   }
 
   @Override
   public Path getPath() {
-    return path;
+    return completed() ? result.join() : null;
+  }
+
+  @Override
+  public CompletableFuture<Path> toFuture() {
+    return result;
+  }
+
+  @Override
+  public void close() {
+    if (result.cancel(true)) {
+      logger.info("Cancelled generation with template {} and resolver {} on close", template, resolver);
+    }
+  }
+
+  /**
+   * A part of a generation reported by {@link #reportGeneration(GenerationStep)}.
+   *
+   * @param <T> The type of the result
+   */
+  @FunctionalInterface
+  protected interface GenerationStep<T> {
+    T run() throws IOException;
+  }
+
+  /**
+   * A future which interrupts the thread generating the document when it gets cancelled.
+   */
+  private static class GenerationFuture extends CompletableFuture<Path> {
+    private Thread runner;
+    private boolean interrupted = false;
+
+    private synchronized boolean start(Thread thread) {
+      if (isDone()) {
+        return false;
+      }
+      runner = thread;
+      return true;
+    }
+
+    /**
+     * Detaches the generating thread, after which cancelling no longer interrupts it.
+     *
+     * @return whether the thread has been interrupted by cancelling this future
+     */
+    private synchronized boolean finish() {
+      runner = null;
+      return interrupted;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      var cancelled = super.cancel(mayInterruptIfRunning);
+      if (cancelled) {
+        interruptRunner();
+      }
+      return cancelled;
+    }
+
+    private synchronized void interruptRunner() {
+      if (runner != null) {
+        logger.debug("Interrupting generation thread {}", runner);
+        runner.interrupt();
+        interrupted = true;
+      }
+    }
   }
 }
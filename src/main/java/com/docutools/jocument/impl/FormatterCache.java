@@ -0,0 +1,197 @@
+package com.docutools.jocument.impl;
+
+import com.docutools.jocument.annotations.Money;
+import com.docutools.jocument.annotations.Numeric;
+import com.docutools.jocument.annotations.Percentage;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.lang.annotation.Annotation;
+import java.math.RoundingMode;
+import java.text.NumberFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.time.temporal.Temporal;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Bounded caches of the formatters used by {@link ReflectionResolver}, keyed by the formatting annotation (or the
+ * formatted type) and the {@link java.util.Locale}.
+ *
+ * <p>{@link java.text.NumberFormat}s are not thread safe, so the cache holds prototypes which are never used for
+ * formatting, and every caller gets a clone, which is much cheaper than creating the format. No copies are held per
+ * thread, so evicted formats are not kept alive by pooled threads. {@link java.time.format.DateTimeFormatter}s are
+ * immutable and shared.</p>
+ *
+ * @see ReflectionResolver
+ */
+final class FormatterCache {
+  private static final Logger logger = LogManager.getLogger();
+  private static final int MAXIMUM_SIZE = 1024;
+
+  private static final LoadingCache<FormatKey, NumberFormat> NUMBER_FORMATS = CacheBuilder.newBuilder()
+      .maximumSize(MAXIMUM_SIZE)
+      .build(CacheLoader.from(FormatterCache::createNumberFormat));
+
+  private static final LoadingCache<FormatKey, DateTimeFormatter> LOCALIZED_FORMATTERS = CacheBuilder.newBuilder()
+      .maximumSize(MAXIMUM_SIZE)
+      .build(CacheLoader.from(FormatterCache::createLocalizedFormatter));
+
+  private FormatterCache() {
+  }
+
+  /**
+   * Get a number format for the locale.
+   *
+   * @param locale The locale
+   * @return A copy of the cached format, owned by the caller
+   */
+  static NumberFormat getNumberFormat(Locale locale) {
+    return (NumberFormat) load(NUMBER_FORMATS, new FormatKey(NumberFormat.class, locale)).clone();
+  }
+
+  /**
+   * Get a number format for a {@link Percentage}, {@link Money} or {@link Numeric} annotation and the locale.
+   *
+   * @param annotation The formatting annotation
+   * @param locale     The locale
+   * @return A copy of the cached format, owned by the caller
+   */
+  static NumberFormat getNumberFormat(Annotation annotation, Locale locale) {
+    return (NumberFormat) load(NUMBER_FORMATS, new FormatKey(annotation, locale)).clone();
+  }
+
+  /**
+   * Get the short localized formatter for the type of the temporal.
+   *
+   * @param time   The temporal to be formatted
+   * @param locale The locale
+   * @return The formatter, empty if there is no localized format for the type of the temporal
+   */
+  static Optional<DateTimeFormatter> getLocalizedFormatter(Temporal time, Locale locale) {
+    if (time instanceof LocalDate || time instanceof LocalTime || time instanceof LocalDateTime) {
+      return Optional.of(load(LOCALIZED_FORMATTERS, new FormatKey(time.getClass(), locale)));
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Loads the formatter, rethrowing exceptions of creating it unwrapped, e.g. the {@link IllegalArgumentException} of
+   * an unknown currency, so callers can handle them like without the cache.
+   */
+  private static <V> V load(LoadingCache<FormatKey, V> cache, FormatKey key) {
+    try {
+      return cache.getUnchecked(key);
+    } catch (UncheckedExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw e;
+    }
+  }
+
+  private static NumberFormat createNumberFormat(FormatKey key) {
+    logger.debug("Creating number format for {} and locale {}", key.specifier, key.locale);
+    return createNumberFormat(key.specifier, key.locale);
+  }
+
+  private static NumberFormat createNumberFormat(Object specifier, Locale locale) {
+    if (specifier instanceof Percentage percentage) {
+      return toNumberFormat(percentage, locale);
+    } else if (specifier instanceof Money money) {
+      return toNumberFormat(money, locale);
+    } else if (specifier instanceof Numeric numeric) {
+      return toNumberFormat(numeric, locale);
+    }
+    return NumberFormat.getInstance(locale);
+  }
+
+  private static DateTimeFormatter createLocalizedFormatter(FormatKey key) {
+    DateTimeFormatter formatter;
+    if (key.specifier == LocalDate.class) {
+      formatter = DateTimeFormatter.ofLocalizedDate(FormatStyle.SHORT);
+    } else if (key.specifier == LocalTime.class) {
+      formatter = DateTimeFormatter.ofLocalizedTime(FormatStyle.SHORT);
+    } else {
+      formatter = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.SHORT);
+    }
+    return formatter.withLocale(key.locale);
+  }
+
+  private static NumberFormat toNumberFormat(Percentage percentage, Locale locale) {
+    var format = NumberFormat.getPercentInstance(locale);
+    if (percentage.maxFractionDigits() > -1) {
+      format.setMaximumFractionDigits(percentage.maxFractionDigits());
+    }
+    return format;
+  }
+
+  private static NumberFormat toNumberFormat(Money money, Locale locale) {
+    var currency = !money.currencyCode().isBlank()
+        ? Currency.getInstance(money.currencyCode()) :
+        Currency.getInstance(locale);
+    var format = NumberFormat.getCurrencyInstance(locale);
+    format.setCurrency(currency);
+    return format;
+  }
+
+  private static NumberFormat toNumberFormat(Numeric numeric, Locale locale) {
+    var format = NumberFormat.getNumberInstance(locale);
+    if (numeric.maxFractionDigits() != -1) {
+      format.setMaximumFractionDigits(numeric.maxFractionDigits());
+    }
+    if (numeric.minFractionDigits() != -1) {
+      format.setMinimumFractionDigits(numeric.minFractionDigits());
+    }
+    if (numeric.maxIntDigits() != -1) {
+      format.setMaximumIntegerDigits(numeric.maxIntDigits());
+    }
+    if (numeric.minIntDigits() != -1) {
+      format.setMinimumIntegerDigits(numeric.minIntDigits());
+    }
+    if (!numeric.currencyCode().equals("")) {
+      format.setCurrency(Currency.getInstance(numeric.currencyCode()));
+    }
+    format.setGroupingUsed(numeric.groupingUsed());
+    format.setParseIntegerOnly(numeric.parseIntegerOnly());
+    if (numeric.roundingMode() != RoundingMode.UNNECESSARY) {
+      format.setRoundingMode(numeric.roundingMode());
+    }
+    return format;
+  }
+
+  private static final class FormatKey {
+    private final Object specifier;
+    private final Locale locale;
+
+    private FormatKey(Object specifier, Locale locale) {
+      this.specifier = specifier;
+      this.locale = locale;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      FormatKey formatKey = (FormatKey) o;
+      return specifier.equals(formatKey.specifier) && locale.equals(formatKey.locale);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(specifier, locale);
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package com.docutools.jocument.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Holds the {@link java.util.concurrent.Executor} documents are generated on, when no executor is passed to
+ * {@link com.docutools.jocument.Template#startGeneration(com.docutools.jocument.PlaceholderResolver)}.
+ *
+ * <p>By default a fixed pool with one daemon thread per available processor is used. The pool size can be set with
+ * the system property {@value #THREADS_PROPERTY}. Setting the system property {@value #EXECUTOR_PROPERTY} to
+ * {@code virtual} uses one virtual thread per document instead, if the running JDK supports them.</p>
+ *
+ * @see com.docutools.jocument.Template#startGeneration(com.docutools.jocument.PlaceholderResolver, Executor)
+ */
+public final class GenerationExecutors {
+  public static final String THREADS_PROPERTY = "jocument.generation.threads";
+  public static final String EXECUTOR_PROPERTY = "jocument.generation.executor";
+  private static final Logger logger = LogManager.getLogger();
+
+  private static volatile Executor defaultExecutor;
+
+  private GenerationExecutors() {
+  }
+
+  /**
+   * Get the default executor, creating it on first access.
+   *
+   * @return the executor used for generations without an explicit executor
+   */
+  public static Executor getDefault() {
+    var executor = defaultExecutor;
+    if (executor == null) {
+      synchronized (GenerationExecutors.class) {
+        if (defaultExecutor == null) {
+          defaultExecutor = createDefault(System.getProperty(EXECUTOR_PROPERTY), GenerationExecutors::newVirtualThreadExecutor);
+        }
+        executor = defaultExecutor;
+      }
+    }
+    return executor;
+  }
+
+  /**
+   * Replace the default executor. The previous executor is not shut down.
+   *
+   * @param executor the executor to generate documents on
+   */
+  public static void setDefault(Executor executor) {
+    defaultExecutor = Objects.requireNonNull(executor);
+  }
+
+  /**
+   * Creates a fixed thread pool with daemon threads, which do not prevent the JVM from exiting.
+   *
+   * @param threads the number of threads
+   * @return the thread pool
+   */
+  public static ExecutorService newFixedPool(int threads) {
+    return Executors.newFixedThreadPool(threads, new GenerationThreadFactory());
+  }
+
+  /**
+   * Creates an executor starting a new virtual thread for each document, if supported by the running JDK.
+   *
+   * @return the executor, empty if virtual threads are not available
+   */
+  public static Optional<ExecutorService> newVirtualThreadExecutor() {
+    try {
+      var factory = MethodHandles.publicLookup()
+          .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+      return Optional.of((ExecutorService) factory.invoke());
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      logger.debug("Virtual threads are not supported by this JDK", e);
+      return Optional.empty();
+    } catch (Throwable e) {
+      logger.warn("Could not create virtual thread executor", e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * The size of the default pool, set by the system property {@value #THREADS_PROPERTY}.
+   *
+   * @return the number of threads, one per available processor by default
+   */
+  public static int defaultThreads() {
+    return Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
+  }
+
+  static Executor createDefault(String executorType, Supplier<Optional<ExecutorService>> virtualThreadExecutor) {
+    if ("virtual".equalsIgnoreCase(executorType)) {
+      var virtual = virtualThreadExecutor.get();
+      if (virtual.isPresent()) {
+        logger.info("Generating documents on virtual threads");
+        return virtual.get();
+      }
+      logger.warn("Virtual threads requested, but not available, falling back to a fixed thread pool");
+    }
+    var threads = defaultThreads();
+    logger.info("Generating documents on a pool of {} threads", threads);
+    return newFixedPool(threads);
+  }
+
+  private static class GenerationThreadFactory implements ThreadFactory {
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      var thread = new Thread(runnable, "jocument-generation-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
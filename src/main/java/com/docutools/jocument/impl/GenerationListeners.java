@@ -0,0 +1,144 @@
+package com.docutools.jocument.impl;
+
+import com.docutools.jocument.Document;
+import com.docutools.jocument.GenerationListener;
+import com.docutools.jocument.GenerationPhase;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Holds the {@link com.docutools.jocument.GenerationListener}s notified about all document generations, and fires
+ * their events from the generators.
+ *
+ * <p>The document being generated is tracked per thread, so the generators and
+ * {@link com.docutools.jocument.PlaceholderData} implementations can report events without knowing their document.
+ * Generations started synchronously by another generation on the same thread are nested: their events are reported
+ * for the inner document until it has finished, then for the outer document again.
+ * Without registered listeners, reporting an event costs a single check.</p>
+ */
+public final class GenerationListeners {
+  private static final Logger logger = LogManager.getLogger();
+  private static final List<GenerationListener> listeners = new CopyOnWriteArrayList<>();
+  private static final ThreadLocal<Deque<Document>> currentDocuments = new ThreadLocal<>();
+
+  private GenerationListeners() {
+  }
+
+  /**
+   * Register a listener for all following document generations.
+   *
+   * @param listener the listener
+   */
+  public static void add(GenerationListener listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Unregister a listener.
+   *
+   * @param listener the listener
+   */
+  public static void remove(GenerationListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Get a timestamp to pass to {@link #phaseCompleted(GenerationPhase, long)} at the end of a phase.
+   *
+   * @return the current value of {@link System#nanoTime()}
+   */
+  public static long start() {
+    return System.nanoTime();
+  }
+
+  /**
+   * Report the completion of a phase of the generation running on the current thread.
+   *
+   * @param phase      the completed phase
+   * @param startNanos the timestamp taken with {@link #start()} at the beginning of the phase
+   */
+  public static void phaseCompleted(GenerationPhase phase, long startNanos) {
+    if (!listeners.isEmpty()) {
+      var duration = Duration.ofNanos(System.nanoTime() - startNanos);
+      fire((listener, document) -> listener.phaseCompleted(document, phase, duration));
+    }
+  }
+
+  /**
+   * Report a placeholder filled by the generation running on the current thread.
+   *
+   * @param placeholderName the name of the placeholder
+   * @param resolved        whether the resolver returned data for the placeholder
+   */
+  public static void placeholderResolved(String placeholderName, boolean resolved) {
+    fire((listener, document) -> listener.placeholderResolved(document, placeholderName, resolved));
+  }
+
+  /**
+   * Report a loop unrolled by the generation running on the current thread.
+   *
+   * @param placeholderName the name of the loop placeholder
+   * @param iterations      the number of items the loop body has been rendered for
+   */
+  public static void loopUnrolled(String placeholderName, long iterations) {
+    fire((listener, document) -> listener.loopUnrolled(document, placeholderName, iterations));
+  }
+
+  /**
+   * Report the size of the document written by the generation running on the current thread.
+   *
+   * @param bytes the size of the written document in bytes
+   */
+  public static void bytesWritten(long bytes) {
+    fire((listener, document) -> listener.bytesWritten(document, bytes));
+  }
+
+  static long generationStarted(Document document) {
+    var documents = currentDocuments.get();
+    if (documents == null) {
+      documents = new ArrayDeque<>();
+      currentDocuments.set(documents);
+    }
+    documents.push(document);
+    fire((listener, current) -> listener.generationStarted(current));
+    return start();
+  }
+
+  static void generationFinished(long startNanos, Optional<Throwable> failure) {
+    try {
+      var duration = Duration.ofNanos(System.nanoTime() - startNanos);
+      fire((listener, document) -> listener.generationFinished(document, duration, failure));
+    } finally {
+      var documents = currentDocuments.get();
+      documents.pop();
+      if (documents.isEmpty()) {
+        currentDocuments.remove();
+      }
+    }
+  }
+
+  private static void fire(BiConsumer<GenerationListener, Document> event) {
+    if (listeners.isEmpty()) {
+      return;
+    }
+    var documents = currentDocuments.get();
+    if (documents == null) {
+      return;
+    }
+    var document = documents.peek();
+    for (GenerationListener listener : listeners) {
+      try {
+        event.accept(listener, document);
+      } catch (RuntimeException e) {
+        logger.warn("Generation listener %s failed".formatted(listener), e);
+      }
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package com.docutools.jocument.impl;
+
+/**
+ * Decides whether a string value of a {@link JsonResolver} refers to an image, in which case it is downloaded and
+ * resolved as {@link com.docutools.jocument.impl.word.placeholders.ImagePlaceholderData}.
+ *
+ * @see ImageDetectors
+ */
+@FunctionalInterface
+public interface ImageDetector {
+
+  /**
+   * Checks whether the value of the given key refers to an image.
+   *
+   * @param key   the name of the JSON member
+   * @param value the string value of the JSON member
+   * @return {@code true} if the value should be resolved as image
+   */
+  boolean isImage(String key, String value);
+
+  /**
+   * Combines this detector with another one, which is only asked if this detector does not detect an image.
+   *
+   * @param other the fallback detector
+   * @return the combined detector
+   */
+  default ImageDetector or(ImageDetector other) {
+    return (key, value) -> isImage(key, value) || other.isImage(key, value);
+  }
+}
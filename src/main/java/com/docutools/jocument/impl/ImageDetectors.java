@@ -0,0 +1,121 @@
+package com.docutools.jocument.impl;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.tika.Tika;
+import org.apache.tika.mime.MediaType;
+
+/**
+ * Factory methods for {@link ImageDetector}s.
+ *
+ * <p>The cheap detectors only look at the key or the value and should be tried first, {@link #byTika()} is only
+ * consulted for values that look like URLs and shares one lazily created {@link org.apache.tika.Tika} instance.</p>
+ */
+public final class ImageDetectors {
+  private static final Logger logger = LogManager.getLogger();
+  private static final Set<String> IMAGE_EXTENSIONS =
+      Set.of("png", "jpg", "jpeg", "gif", "bmp", "tif", "tiff", "webp", "svg", "emf", "wmf");
+  private static final Pattern URL_PATTERN = Pattern.compile("^(https?|ftp|file):.+", Pattern.CASE_INSENSITIVE);
+  private static final ImageDetector DEFAULT = byUrlSuffix().or(byTika());
+
+  private ImageDetectors() {
+  }
+
+  /**
+   * The detector used by {@link JsonResolver} unless another one is passed: URLs with a well known image file suffix
+   * are images, other URLs are checked by Tika and all other values are never images.
+   *
+   * @return the default detector
+   */
+  public static ImageDetector defaultDetector() {
+    return DEFAULT;
+  }
+
+  /**
+   * A detector which never detects images, for payloads which are known not to contain any.
+   *
+   * @return the detector
+   */
+  public static ImageDetector none() {
+    return (key, value) -> false;
+  }
+
+  /**
+   * Detects values of the given keys as images, e.g. from a known schema.
+   *
+   * @param keys the names of the JSON members holding image URLs
+   * @return the detector
+   */
+  public static ImageDetector byKeys(Set<String> keys) {
+    var imageKeys = Set.copyOf(keys);
+    return (key, value) -> imageKeys.contains(key);
+  }
+
+  /**
+   * Detects values of keys following a naming convention as images, e.g. {@code .*(Pic|Image|Logo)}.
+   *
+   * @param keyPattern the pattern the whole key has to match
+   * @return the detector
+   */
+  public static ImageDetector byKeyPattern(Pattern keyPattern) {
+    return (key, value) -> keyPattern.matcher(key).matches();
+  }
+
+  /**
+   * Detects URLs whose path ends with a well known image file suffix as images.
+   *
+   * @return the detector
+   */
+  public static ImageDetector byUrlSuffix() {
+    return (key, value) -> isUrl(value) && IMAGE_EXTENSIONS.contains(extensionOf(value));
+  }
+
+  /**
+   * Detects URLs as images if Tika detects an image media type from their name. Values which do not look like URLs
+   * are never passed to Tika.
+   *
+   * @return the detector
+   */
+  public static ImageDetector byTika() {
+    return (key, value) -> {
+      if (!isUrl(value)) {
+        return false;
+      }
+      try {
+        MediaType mediaType = MediaType.parse(TikaHolder.TIKA.detect(value));
+        return mediaType != null && "image".equals(mediaType.getType());
+      } catch (IllegalStateException e) {
+        logger.warn("Encountered illegal state exception", e);
+        return false;
+      }
+    };
+  }
+
+  private static boolean isUrl(String value) {
+    return URL_PATTERN.matcher(value).matches();
+  }
+
+  private static String extensionOf(String url) {
+    int end = url.length();
+    int query = url.indexOf('?');
+    if (query >= 0) {
+      end = query;
+    }
+    int fragment = url.indexOf('#');
+    if (fragment >= 0 && fragment < end) {
+      end = fragment;
+    }
+    int dot = url.lastIndexOf('.', end - 1);
+    if (dot < 0 || url.lastIndexOf('/', end - 1) > dot) {
+      return "";
+    }
+    return url.substring(dot + 1, end).toLowerCase(Locale.ROOT);
+  }
+
+  private static final class TikaHolder {
+    private static final Tika TIKA = new Tika();
+  }
+}
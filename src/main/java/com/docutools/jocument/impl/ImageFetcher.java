@@ -0,0 +1,44 @@
+package com.docutools.jocument.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Fetches images referenced by URL into temporary files for an {@link ImagePrefetcher}.
+ * Implementations have to be thread safe, since images are fetched in parallel.
+ */
+@FunctionalInterface
+public interface ImageFetcher {
+
+  /**
+   * Fetches the image at {@code url} into a new temporary file, which is owned and deleted by the
+   * {@link ImagePrefetcher}.
+   *
+   * @param url the URL of the image
+   * @return the path to the temporary file
+   * @throws IOException if the image could not be fetched
+   */
+  Path fetch(URL url) throws IOException;
+
+  /**
+   * The default fetcher, downloading the image with {@link java.net.URL#openStream()}.
+   *
+   * @return the fetcher
+   */
+  static ImageFetcher download() {
+    return url -> {
+      Path tmp = Files.createTempFile("jocument-", ".dat");
+      try (InputStream stream = url.openStream()) {
+        Files.copy(stream, tmp, StandardCopyOption.REPLACE_EXISTING);
+        return tmp;
+      } catch (IOException e) {
+        Files.deleteIfExists(tmp);
+        throw e;
+      }
+    };
+  }
+}
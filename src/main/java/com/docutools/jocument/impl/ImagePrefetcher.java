@@ -0,0 +1,242 @@
+package com.docutools.jocument.impl;
+
+import com.google.gson.JsonElement;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Fetches and caches the images referenced by a {@link JsonResolver}, keyed by URL.
+ *
+ * <p>With a parallelism greater than zero, the JSON tree is scanned for images when the resolver is created and all
+ * images are fetched while the template is still being loaded and rendered, otherwise every image is fetched on first
+ * access by the generating thread. {@code file:} URLs are read in place and never copied. Parallel fetches of all
+ * prefetchers run on one shared pool of daemon threads, sized by the system property {@value #THREADS_PROPERTY}, and
+ * each prefetcher runs at most {@code parallelism} of them at the same time.</p>
+ *
+ * <p>Closing the prefetcher stops pending fetches and deletes all fetched temporary files, so it must not be closed
+ * before the generation using its images has finished. A prefetcher which is never closed holds no threads, but leaks
+ * its temporary files until the JVM exits.</p>
+ */
+public final class ImagePrefetcher implements AutoCloseable {
+  public static final String THREADS_PROPERTY = "jocument.images.threads";
+  private static final Logger logger = LogManager.getLogger();
+
+  private final ImageFetcher fetcher;
+  private final int parallelism;
+  private final Map<String, CompletableFuture<FetchedImage>> images = new ConcurrentHashMap<>();
+  private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger running = new AtomicInteger();
+  private volatile boolean closed = false;
+
+  /**
+   * Creates a prefetcher downloading every image on first access.
+   */
+  public ImagePrefetcher() {
+    this(ImageFetcher.download(), 0);
+  }
+
+  /**
+   * Creates a prefetcher downloading the images with up to {@code parallelism} threads.
+   *
+   * @param parallelism the maximum number of concurrent downloads, 0 to download on first access
+   */
+  public ImagePrefetcher(int parallelism) {
+    this(ImageFetcher.download(), parallelism);
+  }
+
+  /**
+   * Creates a prefetcher fetching the images with {@code fetcher} on up to {@code parallelism} threads.
+   *
+   * @param fetcher     fetches images which are not {@code file:} URLs
+   * @param parallelism the maximum number of concurrent fetches, 0 to fetch on first access
+   */
+  public ImagePrefetcher(ImageFetcher fetcher, int parallelism) {
+    if (parallelism < 0) {
+      throw new IllegalArgumentException("Parallelism must not be negative, but was %d".formatted(parallelism));
+    }
+    this.fetcher = fetcher;
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Starts fetching all images found in the given JSON tree, if this prefetcher fetches in parallel.
+   *
+   * @param element       the root of the JSON tree
+   * @param imageDetector decides which string values are images
+   */
+  void prefetch(JsonElement element, ImageDetector imageDetector) {
+    if (parallelism == 0) {
+      return;
+    }
+    logger.info("Starting image prefetch");
+    scan(null, element, imageDetector);
+    logger.info("Scheduled {} image(s) for prefetching", images.size());
+  }
+
+  private void scan(String key, JsonElement element, ImageDetector imageDetector) {
+    if (element.isJsonObject()) {
+      element.getAsJsonObject().entrySet().forEach(entry -> scan(entry.getKey(), entry.getValue(), imageDetector));
+    } else if (element.isJsonArray()) {
+      element.getAsJsonArray().forEach(child -> scan(key, child, imageDetector));
+    } else if (key != null && element.isJsonPrimitive() && element.getAsJsonPrimitive().isString()) {
+      String value = element.getAsString();
+      if (imageDetector.isImage(key, value)) {
+        request(value);
+      }
+    }
+  }
+
+  /**
+   * Get the image at {@code url}, waiting for a running fetch or fetching it on the calling thread.
+   *
+   * @param url the URL of the image
+   * @return the path to the image, empty if it could not be fetched
+   */
+  public Optional<Path> get(String url) {
+    try {
+      return Optional.of(request(url).get().path());
+    } catch (ExecutionException e) {
+      logger.warn("Could not fetch image %s".formatted(url), e.getCause());
+      return Optional.empty();
+    } catch (CancellationException e) {
+      logger.warn("Image prefetcher has been closed before fetching image {}", url);
+      return Optional.empty();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Optional.empty();
+    }
+  }
+
+  private CompletableFuture<FetchedImage> request(String url) {
+    if (closed) {
+      // Nothing would delete an image fetched after closing, so it is not fetched at all
+      return CompletableFuture.failedFuture(new CancellationException("Image prefetcher has been closed"));
+    }
+    var created = new CompletableFuture<FetchedImage>();
+    var existing = images.putIfAbsent(url, created);
+    if (existing != null) {
+      return existing;
+    }
+    Runnable task = () -> fetch(url, created);
+    if (parallelism == 0) {
+      task.run();
+    } else {
+      pending.add(task);
+      startWorkers();
+    }
+    return created;
+  }
+
+  /**
+   * Starts workers on the shared pool for the pending fetches, up to the parallelism of this prefetcher.
+   */
+  private void startWorkers() {
+    while (!closed && !pending.isEmpty()) {
+      int workers = running.get();
+      if (workers >= parallelism) {
+        return;
+      }
+      if (running.compareAndSet(workers, workers + 1)) {
+        SharedPool.EXECUTOR.execute(this::work);
+      }
+    }
+  }
+
+  private void work() {
+    try {
+      Runnable task;
+      while (!closed && (task = pending.poll()) != null) {
+        task.run();
+      }
+    } finally {
+      running.decrementAndGet();
+    }
+    // A fetch requested while this worker was stopping finds it still running, so start another one for it
+    startWorkers();
+  }
+
+  private void fetch(String url, CompletableFuture<FetchedImage> result) {
+    try {
+      logger.debug("Fetching image {}", url);
+      var location = new URL(url);
+      if ("file".equals(location.getProtocol())) {
+        result.complete(new FetchedImage(Path.of(location.toURI()), false));
+      } else {
+        Path path = fetcher.fetch(location);
+        if (!result.complete(new FetchedImage(path, true)) || closed) {
+          // The prefetcher has been closed while fetching, so it will not delete the file anymore
+          Files.deleteIfExists(path);
+        }
+      }
+    } catch (IOException | URISyntaxException | RuntimeException e) {
+      result.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Cancels pending fetches and deletes all fetched temporary files.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    pending.clear();
+    images.values().forEach(image -> image.cancel(false));
+    images.values().stream()
+        .filter(image -> !image.isCompletedExceptionally())
+        .map(CompletableFuture::join)
+        .filter(FetchedImage::temporary)
+        .forEach(image -> {
+          try {
+            Files.deleteIfExists(image.path());
+          } catch (IOException e) {
+            logger.warn("Could not delete fetched image %s".formatted(image.path()), e);
+          }
+        });
+    images.clear();
+  }
+
+  private static final class SharedPool {
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+        Integer.getInteger(THREADS_PROPERTY, 2 * Runtime.getRuntime().availableProcessors()),
+        runnable -> {
+          var thread = new Thread(runnable, "jocument-image-fetch-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  private static final class FetchedImage {
+    private final Path path;
+    private final boolean temporary;
+
+    private FetchedImage(Path path, boolean temporary) {
+      this.path = path;
+      this.temporary = temporary;
+    }
+
+    private Path path() {
+      return path;
+    }
+
+    private boolean temporary() {
+      return temporary;
+    }
+  }
+}
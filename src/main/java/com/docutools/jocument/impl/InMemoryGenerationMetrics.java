@@ -0,0 +1,119 @@
+package com.docutools.jocument.impl;
+
+import com.docutools.jocument.Document;
+import com.docutools.jocument.GenerationListener;
+import com.docutools.jocument.GenerationPhase;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link com.docutools.jocument.GenerationListener} summing up the metrics of all generations in memory, e.g. for
+ * tests or simple monitoring without a metrics library.
+ */
+public class InMemoryGenerationMetrics implements GenerationListener {
+  private final LongAdder generationsStarted = new LongAdder();
+  private final LongAdder generationsSucceeded = new LongAdder();
+  private final LongAdder generationsFailed = new LongAdder();
+  private final LongAdder placeholdersResolved = new LongAdder();
+  private final LongAdder placeholdersUnresolved = new LongAdder();
+  private final LongAdder loopsUnrolled = new LongAdder();
+  private final LongAdder loopIterations = new LongAdder();
+  private final LongAdder bytesWritten = new LongAdder();
+  private final Map<GenerationPhase, LongAdder> phaseCounts = newPhaseMap();
+  private final Map<GenerationPhase, LongAdder> phaseNanos = newPhaseMap();
+
+  private static Map<GenerationPhase, LongAdder> newPhaseMap() {
+    return new EnumMap<>(Arrays.stream(GenerationPhase.values())
+        .collect(Collectors.toMap(Function.identity(), phase -> new LongAdder())));
+  }
+
+  @Override
+  public void generationStarted(Document document) {
+    generationsStarted.increment();
+  }
+
+  @Override
+  public void phaseCompleted(Document document, GenerationPhase phase, Duration duration) {
+    phaseCounts.get(phase).increment();
+    phaseNanos.get(phase).add(duration.toNanos());
+  }
+
+  @Override
+  public void placeholderResolved(Document document, String placeholderName, boolean resolved) {
+    (resolved ? placeholdersResolved : placeholdersUnresolved).increment();
+  }
+
+  @Override
+  public void loopUnrolled(Document document, String placeholderName, long iterations) {
+    loopsUnrolled.increment();
+    loopIterations.add(iterations);
+  }
+
+  @Override
+  public void bytesWritten(Document document, long bytes) {
+    bytesWritten.add(bytes);
+  }
+
+  @Override
+  public void generationFinished(Document document, Duration duration, Optional<Throwable> failure) {
+    (failure.isPresent() ? generationsFailed : generationsSucceeded).increment();
+  }
+
+  public long getGenerationsStarted() {
+    return generationsStarted.sum();
+  }
+
+  public long getGenerationsSucceeded() {
+    return generationsSucceeded.sum();
+  }
+
+  public long getGenerationsFailed() {
+    return generationsFailed.sum();
+  }
+
+  public long getPlaceholdersResolved() {
+    return placeholdersResolved.sum();
+  }
+
+  public long getPlaceholdersUnresolved() {
+    return placeholdersUnresolved.sum();
+  }
+
+  public long getLoopsUnrolled() {
+    return loopsUnrolled.sum();
+  }
+
+  public long getLoopIterations() {
+    return loopIterations.sum();
+  }
+
+  public long getBytesWritten() {
+    return bytesWritten.sum();
+  }
+
+  public long getPhaseCount(GenerationPhase phase) {
+    return phaseCounts.get(phase).sum();
+  }
+
+  public Duration getPhaseDuration(GenerationPhase phase) {
+    return Duration.ofNanos(phaseNanos.get(phase).sum());
+  }
+
+  /**
+   * Reset all metrics to zero.
+   */
+  public void reset() {
+    for (LongAdder adder : new LongAdder[] {generationsStarted, generationsSucceeded, generationsFailed,
+        placeholdersResolved, placeholdersUnresolved, loopsUnrolled, loopIterations, bytesWritten}) {
+      adder.reset();
+    }
+    phaseCounts.values().forEach(LongAdder::reset);
+    phaseNanos.values().forEach(LongAdder::reset);
+  }
+}
@@ -7,6 +7,7 @@ import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 public class IterablePlaceholderData implements PlaceholderData {
+  private static final long UNKNOWN_COUNT = -1;
 
   private final Iterable<PlaceholderResolver> iterable;
   private final long count;
@@ -16,6 +17,15 @@ public class IterablePlaceholderData implements PlaceholderData {
     this.count = count;
   }
 
+  /**
+   * Creates set data of an iterable whose number of items is unknown, so {@link #count()} is not supported.
+   *
+   * @param iterable the items
+   */
+  public IterablePlaceholderData(Iterable<PlaceholderResolver> iterable) {
+    this(iterable, UNKNOWN_COUNT);
+  }
+
   @Override
   public PlaceholderType getType() {
     return PlaceholderType.SET;
@@ -28,6 +38,9 @@ public class IterablePlaceholderData implements PlaceholderData {
 
   @Override
   public long count() {
+    if (count == UNKNOWN_COUNT) {
+      throw new UnsupportedOperationException("The number of items is unknown.");
+    }
     return count;
   }
 
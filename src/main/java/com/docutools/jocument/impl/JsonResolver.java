@@ -14,20 +14,18 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.URL;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Spliterator;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.apache.poi.util.IOUtils;
-import org.apache.tika.Tika;
-import org.apache.tika.mime.MediaType;
 
 /**
  * Takes a {@link java.lang.String} or {@link java.net.URL} of a JSON and resolves placeholder names.
@@ -36,10 +34,13 @@ import org.apache.tika.mime.MediaType;
  * @see com.docutools.jocument.PlaceholderResolver
  * @since 2020-02-19
  */
-public class JsonResolver implements PlaceholderResolver {
+public class JsonResolver implements PlaceholderResolver, AutoCloseable {
   private static final Logger logger = LogManager.getLogger();
-  private final Tika tika = new Tika();
-  private JsonElement jsonElement;
+  private final JsonElement jsonElement;
+  private final ImageDetector imageDetector;
+  private final ImagePrefetcher imagePrefetcher;
+  private final boolean ownsPrefetcher;
+  private final Map<String, StreamedJsonArrayPlaceholderData> streamedArrays;
 
   /**
    * Creates a JsonResolver using the given JSON string.
@@ -48,8 +49,37 @@ public class JsonResolver implements PlaceholderResolver {
    * @throws JsonParseException if the specified text is not valid JSON
    */
   public JsonResolver(String json) {
+    this(json, ImageDetectors.defaultDetector());
+  }
+
+  /**
+   * Creates a JsonResolver using the given JSON string, detecting image URLs with the given detector.
+   *
+   * @param json          JSON string content.
+   * @param imageDetector decides which string values are resolved as images
+   * @throws JsonParseException if the specified text is not valid JSON
+   */
+  public JsonResolver(String json, ImageDetector imageDetector) {
+    this(json, imageDetector, new ImagePrefetcher());
+  }
+
+  /**
+   * Creates a JsonResolver using the given JSON string, fetching the detected images with the given prefetcher.
+   * The resolver takes ownership of the prefetcher and closes it when it is closed itself.
+   *
+   * @param json            JSON string content.
+   * @param imageDetector   decides which string values are resolved as images
+   * @param imagePrefetcher fetches the images, starting with all images found in {@code json}
+   * @throws JsonParseException if the specified text is not valid JSON
+   */
+  public JsonResolver(String json, ImageDetector imageDetector, ImagePrefetcher imagePrefetcher) {
     logger.info("Creating JSON resolver from {}", json);
     this.jsonElement = JsonParser.parseString(json);
+    this.imageDetector = imageDetector;
+    this.imagePrefetcher = imagePrefetcher;
+    this.ownsPrefetcher = true;
+    this.streamedArrays = Map.of();
+    imagePrefetcher.prefetch(jsonElement, imageDetector);
   }
 
   /**
@@ -65,6 +95,122 @@ public class JsonResolver implements PlaceholderResolver {
       JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(stream)));
       this.jsonElement = JsonParser.parseReader(reader);
     }
+    this.imageDetector = ImageDetectors.defaultDetector();
+    this.imagePrefetcher = new ImagePrefetcher();
+    this.ownsPrefetcher = true;
+    this.streamedArrays = Map.of();
+    imagePrefetcher.prefetch(jsonElement, imageDetector);
+  }
+
+  /**
+   * Creates a JsonResolver wrapping an already parsed JSON element.
+   *
+   * @param jsonElement the JSON element
+   */
+  public JsonResolver(JsonElement jsonElement) {
+    this(jsonElement, ImageDetectors.defaultDetector());
+  }
+
+  /**
+   * Creates a JsonResolver wrapping an already parsed JSON element, detecting image URLs with the given detector.
+   *
+   * @param jsonElement   the JSON element
+   * @param imageDetector decides which string values are resolved as images
+   */
+  public JsonResolver(JsonElement jsonElement, ImageDetector imageDetector) {
+    this(jsonElement, imageDetector, new ImagePrefetcher());
+  }
+
+  /**
+   * Creates a JsonResolver wrapping an already parsed JSON element, fetching the detected images with the given
+   * prefetcher. The resolver takes ownership of the prefetcher and closes it when it is closed itself.
+   *
+   * @param jsonElement     the JSON element
+   * @param imageDetector   decides which string values are resolved as images
+   * @param imagePrefetcher fetches the images, starting with all images found in {@code jsonElement}
+   */
+  public JsonResolver(JsonElement jsonElement, ImageDetector imageDetector, ImagePrefetcher imagePrefetcher) {
+    this(jsonElement, imageDetector, imagePrefetcher, true);
+    imagePrefetcher.prefetch(jsonElement, imageDetector);
+  }
+
+  JsonResolver(JsonElement jsonElement, ImageDetector imageDetector, ImagePrefetcher imagePrefetcher, boolean ownsPrefetcher) {
+    this(jsonElement, imageDetector, imagePrefetcher, ownsPrefetcher, Map.of());
+  }
+
+  private JsonResolver(JsonElement jsonElement, ImageDetector imageDetector, ImagePrefetcher imagePrefetcher, boolean ownsPrefetcher,
+                       Map<String, StreamedJsonArrayPlaceholderData> streamedArrays) {
+    this.jsonElement = jsonElement;
+    this.imageDetector = imageDetector;
+    this.imagePrefetcher = imagePrefetcher;
+    this.ownsPrefetcher = ownsPrefetcher;
+    this.streamedArrays = streamedArrays;
+  }
+
+  /**
+   * Creates a resolver which resolves {@code placeholderName} to the JSON array read by {@code reader}, and all other
+   * placeholders like this resolver. Use this for arrays too large to be parsed with the rest of the JSON, e.g. the
+   * line items of a report read from a file of their own: the elements are parsed one at a time while the loop
+   * iterates them, like {@link #streamArray(Reader, ImageDetector, ImagePrefetcher)}. The array can only be streamed
+   * once, so the template may use the loop only once.
+   *
+   * <p>The created resolver shares the image prefetcher of this resolver, which stays responsible for closing it.
+   * Closing the created resolver closes the reader, if the array has not been streamed.</p>
+   *
+   * @param placeholderName the name of the loop placeholder
+   * @param reader          the reader positioned at the start of a JSON array
+   * @return the resolver
+   * @throws IOException if the reader is not positioned at the start of an array
+   */
+  public JsonResolver withStreamedArray(String placeholderName, Reader reader) throws IOException {
+    logger.info("Streaming placeholder {} from JSON array", placeholderName);
+    var arrays = new HashMap<>(streamedArrays);
+    arrays.put(placeholderName, new StreamedJsonArrayPlaceholderData(new JsonReader(reader), imageDetector, imagePrefetcher, false));
+    return new JsonResolver(jsonElement, imageDetector, imagePrefetcher, false, Map.copyOf(arrays));
+  }
+
+  /**
+   * Creates a {@link PlaceholderData} of type {@link com.docutools.jocument.PlaceholderType#SET} from the JSON array
+   * read by {@code reader}. The elements are parsed one at a time while the loop iterates them, so arbitrarily large
+   * arrays can be rendered without materializing the whole array. The returned data can only be streamed once, the
+   * reader is closed after the last element has been read. The images of the elements are fetched on first access, the
+   * fetched files are deleted when the stream is closed. The number of elements is unknown before streaming them,
+   * so {@link PlaceholderData#count()} is not supported. Use {@link #withStreamedArray(String, Reader)} to resolve a
+   * loop of a template to a streamed array.
+   *
+   * @param reader the reader positioned at the start of a JSON array
+   * @return the streaming placeholder data
+   * @throws IOException if the reader is not positioned at the start of an array
+   */
+  public static PlaceholderData streamArray(Reader reader) throws IOException {
+    return streamArray(reader, ImageDetectors.defaultDetector());
+  }
+
+  /**
+   * Same as {@link #streamArray(Reader)}, detecting image URLs in the elements with the given detector.
+   *
+   * @param reader        the reader positioned at the start of a JSON array
+   * @param imageDetector decides which string values are resolved as images
+   * @return the streaming placeholder data
+   * @throws IOException if the reader is not positioned at the start of an array
+   */
+  public static PlaceholderData streamArray(Reader reader, ImageDetector imageDetector) throws IOException {
+    return new StreamedJsonArrayPlaceholderData(new JsonReader(reader), imageDetector, new ImagePrefetcher(), true);
+  }
+
+  /**
+   * Same as {@link #streamArray(Reader, ImageDetector)}, fetching the images of the elements with the given prefetcher.
+   * The prefetcher stays owned by the caller, who has to close it after the generation.
+   *
+   * @param reader          the reader positioned at the start of a JSON array
+   * @param imageDetector   decides which string values are resolved as images
+   * @param imagePrefetcher fetches the images of the elements
+   * @return the streaming placeholder data
+   * @throws IOException if the reader is not positioned at the start of an array
+   */
+  public static PlaceholderData streamArray(Reader reader, ImageDetector imageDetector, ImagePrefetcher imagePrefetcher)
+      throws IOException {
+    return new StreamedJsonArrayPlaceholderData(new JsonReader(reader), imageDetector, imagePrefetcher, false);
   }
 
   @Override
@@ -75,6 +221,9 @@ public class JsonResolver implements PlaceholderResolver {
   @Override
   public Optional<PlaceholderData> resolve(String placeholderName, Locale locale) {
     logger.debug("Trying to resolve placeholder {}", placeholderName);
+    if (streamedArrays.containsKey(placeholderName)) {
+      return Optional.of(streamedArrays.get(placeholderName));
+    }
     if (jsonElement.isJsonObject()) {
       return fromObject(placeholderName, jsonElement.getAsJsonObject());
     } else if (jsonElement.isJsonArray()) {
@@ -92,57 +241,48 @@ public class JsonResolver implements PlaceholderResolver {
 
     JsonElement element = jsonObject.get(placeholderName);
     if (element.isJsonPrimitive()) {
-      return fromPrimitive(element.getAsJsonPrimitive());
+      return fromPrimitive(placeholderName, element.getAsJsonPrimitive());
     } else if (element.isJsonArray()) {
       return fromArray(element.getAsJsonArray());
     } else if (element.isJsonObject()) {
-      String json = element.toString();
-      return Optional.of(new IterablePlaceholderData(List.of(new JsonResolver(json)), 1));
+      return Optional.of(new IterablePlaceholderData(List.of(new JsonResolver(element, imageDetector, imagePrefetcher, false)), 1));
     }
 
     logger.warn("Failed to resolve placeholder {} as JSON Object {} to placeholder data", placeholderName, jsonObject);
     return Optional.empty();
   }
 
-  private Optional<PlaceholderData> fromPrimitive(JsonPrimitive primitive) {
+  private Optional<PlaceholderData> fromPrimitive(String placeholderName, JsonPrimitive primitive) {
     String data = primitive.getAsString();
-    if (isImage(data)) {
-      return fromUrlContent(data)
+    if (primitive.isString() && imageDetector.isImage(placeholderName, data)) {
+      return imagePrefetcher.get(data)
           .map(ImagePlaceholderData::new);
     }
-    return Optional.of(new ScalarPlaceholderData(data));
-  }
-
-  private boolean isImage(String data) {
-    try {
-      String detected = tika.detect(data);
-      MediaType mediaType = MediaType.parse(detected);
-      return mediaType != null && "image".equals(mediaType.getType());
-    } catch (IllegalStateException e) {
-      logger.warn("Encountered illegal state exception", e);
-      return false;
-    }
-
-  }
-
-  private Optional<Path> fromUrlContent(String url) {
-    try (InputStream stream = new URL(url).openStream()) {
-      Path tmp = Files.createTempFile("jocument-", ".dat");
-      IOUtils.copy(stream, tmp.toFile());
-      return Optional.of(tmp);
-    } catch (IOException e) {
-      logger.warn("Encountered IOException when trying to resolve URL %s".formatted(url), e);
-      return Optional.empty();
+    if (primitive.isNumber()) {
+      return Optional.of(new ScalarPlaceholderData(primitive.getAsNumber(), () -> data));
+    } else if (primitive.isBoolean()) {
+      return Optional.of(new ScalarPlaceholderData(primitive.getAsBoolean(), () -> data));
     }
+    return Optional.of(new ScalarPlaceholderData(data));
   }
 
   private Optional<PlaceholderData> fromArray(JsonArray jsonArray) {
     Spliterator<JsonElement> spliterator = jsonArray.spliterator();
     List<PlaceholderResolver> list = StreamSupport.stream(spliterator, false)
-        .map(JsonElement::toString)
-        .map(JsonResolver::new)
+        .map(element -> new JsonResolver(element, imageDetector, imagePrefetcher, false))
         .collect(Collectors.toList());
     return Optional.of(new IterablePlaceholderData(list, list.size()));
   }
 
+  /**
+   * Closes the {@link ImagePrefetcher} owned by this resolver, deleting the images it fetched, and the readers of
+   * streamed arrays. Resolvers of nested objects share the prefetcher of their root and do not close it.
+   */
+  @Override
+  public void close() {
+    streamedArrays.values().forEach(StreamedJsonArrayPlaceholderData::close);
+    if (ownsPrefetcher) {
+      imagePrefetcher.close();
+    }
+  }
 }
@@ -18,6 +18,16 @@ public class ParsingUtils {
     return value.substring(2, value.length() - 2);
   }
 
+  /**
+   * Checks whether the given string possibly contains a placeholder, without matching the placeholder pattern.
+   *
+   * @param value the string
+   * @return {@code false} if the string can not contain a placeholder
+   */
+  public static boolean containsPlaceholder(String value) {
+    return value.contains("{{");
+  }
+
   public static String getMatchingLoopEnd(String placeholder) {
     return String.format("{{/%s}}", placeholder);
   }
@@ -0,0 +1,288 @@
+package com.docutools.jocument.impl;
+
+import com.docutools.jocument.CustomPlaceholderRegistry;
+import com.docutools.jocument.PlaceholderIndex;
+import com.docutools.jocument.PlaceholderResolver;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The {@link PlaceholderIndex} built from the scanned texts of a template. Loops are detected syntactically like the
+ * generators do: a text consisting of exactly one placeholder starts a loop if a later text of the same part consists of
+ * its loop end.
+ */
+public final class PlaceholderIndexImpl implements PlaceholderIndex {
+  private static final Logger logger = LogManager.getLogger();
+
+  private final Map<String, List<Location>> locations;
+  private final Scope root;
+
+  private PlaceholderIndexImpl(Map<String, List<Location>> locations, Scope root) {
+    this.locations = locations;
+    this.root = root;
+  }
+
+  /**
+   * Builds the index of a template.
+   *
+   * @param parts the parts of the template, like the body of a word template or the sheets of an excel template, each
+   *              as its top level elements in order of appearance
+   * @return the index
+   */
+  public static PlaceholderIndexImpl build(List<List<Element>> parts) {
+    Map<String, List<Location>> locations = new LinkedHashMap<>();
+    var root = new Scope();
+    for (List<Element> part : parts) {
+      index(part, root, locations);
+    }
+    locations.replaceAll((name, nameLocations) -> Collections.unmodifiableList(nameLocations));
+    logger.debug("Indexed {} placeholders", locations.size());
+    return new PlaceholderIndexImpl(Collections.unmodifiableMap(locations), root);
+  }
+
+  private static void index(List<Element> elements, Scope scope, Map<String, List<Location>> locations) {
+    for (int i = 0; i < elements.size(); i++) {
+      var element = elements.get(i);
+      var loopName = element.getLoopName();
+      if (loopName.isPresent()) {
+        int end = findLoopEnd(elements, i + 1, loopName.get());
+        if (end != -1) {
+          var location = new LocationImpl(element.sheet, element.position, true);
+          var loop = new LoopImpl(loopName.get(), location);
+          locations.computeIfAbsent(loop.name, name -> new ArrayList<>()).add(location);
+          index(elements.subList(i + 1, end), loop.scope, locations);
+          scope.loops.add(loop);
+          i = end;
+          continue;
+        }
+      }
+      for (PlaceholderText text : element.texts) {
+        var location = new LocationImpl(element.sheet, element.position, element.isStandalone(text));
+        for (String name : text.getPlaceholders()) {
+          if (!name.startsWith("/")) {
+            scope.placeholders.add(name);
+            locations.computeIfAbsent(name, key -> new ArrayList<>()).add(location);
+          }
+        }
+      }
+    }
+  }
+
+  private static int findLoopEnd(List<Element> elements, int from, String name) {
+    for (int i = from; i < elements.size(); i++) {
+      if (elements.get(i).isLoopEnd(name)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public Set<String> getNames() {
+    return locations.keySet();
+  }
+
+  @Override
+  public List<Location> getLocations(String name) {
+    return locations.getOrDefault(name, List.of());
+  }
+
+  @Override
+  public Set<String> getPlaceholders() {
+    return Collections.unmodifiableSet(root.placeholders);
+  }
+
+  @Override
+  public List<Loop> getLoops() {
+    return Collections.unmodifiableList(root.loops);
+  }
+
+  @Override
+  public Set<String> getCustomPlaceholders(CustomPlaceholderRegistry registry) {
+    return locations.entrySet().stream()
+        .filter(entry -> entry.getValue().stream().anyMatch(location -> location.getSheet().isEmpty() && location.isStandalone()))
+        .map(Map.Entry::getKey)
+        .filter(registry::governs)
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+  }
+
+  @Override
+  public Set<String> findUnresolved(PlaceholderResolver resolver) {
+    logger.info("Checking placeholders of index with resolver {}", resolver);
+    var unresolved = Stream.concat(root.placeholders.stream(), root.loops.stream().map(Loop::getName))
+        .distinct()
+        .filter(name -> resolver.resolve(name).isEmpty())
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+    logger.info("Resolver {} can not resolve {} placeholders", resolver, unresolved.size());
+    return unresolved;
+  }
+
+  @Override
+  public String toString() {
+    return "PlaceholderIndex{placeholders=%s, loops=%s}".formatted(root.placeholders, root.loops);
+  }
+
+  /**
+   * A top level element of a template, like a paragraph or table of a word template or a row of an excel template.
+   */
+  public static final class Element {
+    private final String sheet;
+    private final int position;
+    private final List<PlaceholderText> texts;
+    private final Kind kind;
+    private final boolean delimiter;
+
+    private Element(String sheet, int position, List<PlaceholderText> texts, Kind kind, boolean delimiter) {
+      this.sheet = sheet;
+      this.position = position;
+      this.texts = texts;
+      this.kind = kind;
+      this.delimiter = delimiter;
+    }
+
+    private enum Kind {
+      PARAGRAPH,
+      TABLE,
+      ROW
+    }
+
+    /**
+     * A top level paragraph of a word template, which can start and end loops.
+     *
+     * @param position the position in the body
+     * @param text     the text of the paragraph
+     * @return the element
+     */
+    public static Element paragraph(int position, PlaceholderText text) {
+      return new Element(null, position, List.of(text), Kind.PARAGRAPH, true);
+    }
+
+    /**
+     * A top level table of a word template, which can not start or end loops.
+     *
+     * @param position the position in the body
+     * @param texts    the texts of the paragraphs in the cells
+     * @return the element
+     */
+    public static Element table(int position, List<PlaceholderText> texts) {
+      return new Element(null, position, texts, Kind.TABLE, false);
+    }
+
+    /**
+     * A row of an excel template, which can start and end loops if it contains a single cell.
+     *
+     * @param sheet   the name of the sheet
+     * @param rowNum  the row number
+     * @param texts   the texts of the string cells
+     * @param oneCell whether the row has only one non empty cell
+     * @return the element
+     */
+    public static Element row(String sheet, int rowNum, List<PlaceholderText> texts, boolean oneCell) {
+      return new Element(sheet, rowNum, texts, Kind.ROW, oneCell);
+    }
+
+    private boolean isStandalone(PlaceholderText text) {
+      return switch (kind) {
+        case PARAGRAPH -> text.getKind() == PlaceholderText.Kind.SINGLE_PLACEHOLDER;
+        case ROW -> text.isExactPlaceholder();
+        case TABLE -> false;
+      };
+    }
+
+    private Optional<String> getLoopName() {
+      if (delimiter && texts.size() == 1 && texts.get(0).isExactPlaceholder()
+          && texts.get(0).getKind() == PlaceholderText.Kind.SINGLE_PLACEHOLDER) {
+        return texts.get(0).getSinglePlaceholder();
+      }
+      return Optional.empty();
+    }
+
+    private boolean isLoopEnd(String name) {
+      return delimiter && texts.size() == 1 && texts.get(0).isExactPlaceholder()
+          && texts.get(0).getSinglePlaceholder().equals(Optional.of("/" + name));
+    }
+  }
+
+  private static class Scope {
+    private final Set<String> placeholders = new LinkedHashSet<>();
+    private final List<Loop> loops = new ArrayList<>();
+  }
+
+  private static final class LoopImpl implements Loop {
+    private final String name;
+    private final Location location;
+    private final Scope scope = new Scope();
+
+    private LoopImpl(String name, Location location) {
+      this.name = name;
+      this.location = location;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public Location getLocation() {
+      return location;
+    }
+
+    @Override
+    public Set<String> getPlaceholders() {
+      return Collections.unmodifiableSet(scope.placeholders);
+    }
+
+    @Override
+    public List<Loop> getLoops() {
+      return Collections.unmodifiableList(scope.loops);
+    }
+
+    @Override
+    public String toString() {
+      return "Loop{name=%s, placeholders=%s, loops=%s}".formatted(name, scope.placeholders, scope.loops);
+    }
+  }
+
+  private static final class LocationImpl implements Location {
+    private final String sheet;
+    private final int position;
+    private final boolean standalone;
+
+    private LocationImpl(String sheet, int position, boolean standalone) {
+      this.sheet = sheet;
+      this.position = position;
+      this.standalone = standalone;
+    }
+
+    @Override
+    public Optional<String> getSheet() {
+      return Optional.ofNullable(sheet);
+    }
+
+    @Override
+    public int getPosition() {
+      return position;
+    }
+
+    @Override
+    public boolean isStandalone() {
+      return standalone;
+    }
+
+    @Override
+    public String toString() {
+      return "Location{sheet=%s, position=%d, standalone=%s}".formatted(sheet, position, standalone);
+    }
+  }
+}
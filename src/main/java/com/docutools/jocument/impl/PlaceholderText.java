@@ -0,0 +1,156 @@
+package com.docutools.jocument.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * A text of a template split into literal text and placeholder names by a single pass over its characters.
+ * Placeholders are recognized exactly like by {@link DocumentImpl#TAG_PATTERN}, without running the regular expression
+ * and without resolving anything, so generators can classify the text once and decide how to resolve it.
+ */
+public final class PlaceholderText {
+  private static final String OPENING = "{{";
+  private static final String CLOSING = "}}";
+
+  /**
+   * The syntactic kind of a scanned text.
+   */
+  public enum Kind {
+    /**
+     * The text does not contain any placeholder.
+     */
+    PLAIN,
+    /**
+     * The text, ignoring surrounding whitespace, consists of a single placeholder, e.g. a loop start or a custom
+     * placeholder.
+     */
+    SINGLE_PLACEHOLDER,
+    /**
+     * The text, ignoring surrounding whitespace, consists of a single loop end like {@code {{/name}}}.
+     */
+    LOOP_END,
+    /**
+     * The text contains placeholders mixed with literal text or other placeholders.
+     */
+    MIXED
+  }
+
+  private final String text;
+  // Literal text at even indices, placeholder names at odd indices
+  private final List<String> parts;
+
+  private PlaceholderText(String text, List<String> parts) {
+    this.text = text;
+    this.parts = parts;
+  }
+
+  /**
+   * Scans the text for placeholders.
+   *
+   * @param text the text
+   * @return the scanned text
+   */
+  public static PlaceholderText scan(String text) {
+    if (!text.contains(OPENING)) {
+      return new PlaceholderText(text, List.of(text));
+    }
+    List<String> parts = new ArrayList<>();
+    int literalStart = 0;
+    int position = text.indexOf(OPENING);
+    while (position >= 0) {
+      int nameStart = position + OPENING.length();
+      int nameEnd = nameStart;
+      while (nameEnd < text.length() && isNameCharacter(text.charAt(nameEnd))) {
+        nameEnd++;
+      }
+      if (nameEnd > nameStart && text.startsWith(CLOSING, nameEnd)) {
+        parts.add(text.substring(literalStart, position));
+        parts.add(text.substring(nameStart, nameEnd));
+        literalStart = nameEnd + CLOSING.length();
+        position = text.indexOf(OPENING, literalStart);
+      } else {
+        position = text.indexOf(OPENING, position + 1);
+      }
+    }
+    parts.add(text.substring(literalStart));
+    return new PlaceholderText(text, Collections.unmodifiableList(parts));
+  }
+
+  private static boolean isNameCharacter(char c) {
+    return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+        || c == '-' || c == '/' || c == '#' || c == '.'
+        || DocumentImpl.GERMAN_SPECIAL_CHARACTERS.indexOf(c) >= 0;
+  }
+
+  /**
+   * Get the kind of the text.
+   *
+   * @return the kind
+   */
+  public Kind getKind() {
+    if (parts.size() == 1) {
+      return Kind.PLAIN;
+    }
+    if (parts.size() == 3 && parts.get(0).isBlank() && parts.get(2).isBlank()) {
+      return parts.get(1).startsWith("/") ? Kind.LOOP_END : Kind.SINGLE_PLACEHOLDER;
+    }
+    return Kind.MIXED;
+  }
+
+  /**
+   * Get the name of the placeholder if the text consists of a single placeholder or loop end.
+   *
+   * @return the name, empty for other kinds
+   */
+  public Optional<String> getSinglePlaceholder() {
+    var kind = getKind();
+    return kind == Kind.SINGLE_PLACEHOLDER || kind == Kind.LOOP_END ? Optional.of(parts.get(1)) : Optional.empty();
+  }
+
+  /**
+   * Check whether the text consists of a single placeholder without any surrounding whitespace, like loop starts.
+   *
+   * @return {@code true} if the text is exactly one placeholder
+   */
+  public boolean isExactPlaceholder() {
+    return parts.size() == 3 && parts.get(0).isEmpty() && parts.get(2).isEmpty();
+  }
+
+  /**
+   * Get the names of all placeholders in order of appearance.
+   *
+   * @return the names
+   */
+  public List<String> getPlaceholders() {
+    List<String> names = new ArrayList<>(parts.size() / 2);
+    for (int i = 1; i < parts.size(); i += 2) {
+      names.add(parts.get(i));
+    }
+    return names;
+  }
+
+  /**
+   * Replace every placeholder with the value computed for its name.
+   *
+   * @param values computes the value of a placeholder from its name
+   * @return the text with replaced placeholders
+   */
+  public String replace(Function<String, String> values) {
+    if (parts.size() == 1) {
+      return text;
+    }
+    var builder = new StringBuilder(text.length());
+    for (int i = 0; i < parts.size(); i++) {
+      builder.append(i % 2 == 0 ? parts.get(i) : values.apply(parts.get(i)));
+    }
+    return builder.toString();
+  }
+
+  @Override
+  public String toString() {
+    return text;
+  }
+}
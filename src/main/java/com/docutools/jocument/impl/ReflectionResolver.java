@@ -3,30 +3,22 @@ package com.docutools.jocument.impl;
 import com.docutools.jocument.CustomPlaceholderRegistry;
 import com.docutools.jocument.PlaceholderData;
 import com.docutools.jocument.PlaceholderResolver;
-import com.docutools.jocument.annotations.Format;
-import com.docutools.jocument.annotations.Image;
-import com.docutools.jocument.annotations.Money;
-import com.docutools.jocument.annotations.Numeric;
-import com.docutools.jocument.annotations.Percentage;
+import com.docutools.jocument.impl.BeanMetadata.PropertyMetadata;
 import com.docutools.jocument.impl.word.placeholders.ImagePlaceholderData;
-import java.lang.annotation.Annotation;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Streams;
 import java.lang.reflect.InvocationTargetException;
-import java.math.RoundingMode;
 import java.nio.file.Path;
 import java.text.NumberFormat;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.time.format.FormatStyle;
 import java.time.temporal.Temporal;
 import java.util.Collection;
-import java.util.Currency;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.commons.beanutils.PropertyUtilsBean;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -44,8 +36,13 @@ public class ReflectionResolver implements PlaceholderResolver {
 
   private static final Logger logger = LogManager.getLogger();
 
+  /**
+   * Fallback for beans without introspectable getters, e.g. {@link java.util.Map}s. Thread safe and shared, since its
+   * caches are per class.
+   */
+  private static final PropertyUtilsBean PROPERTY_UTILS = new PropertyUtilsBean();
+
   private final Object bean;
-  private final PropertyUtilsBean pub = new PropertyUtilsBean();
   private final CustomPlaceholderRegistry customPlaceholderRegistry;
 
   public ReflectionResolver(Object value) {
@@ -58,69 +55,6 @@ public class ReflectionResolver implements PlaceholderResolver {
     this.customPlaceholderRegistry = customPlaceholderRegistry;
   }
 
-  private static boolean isFieldAnnotatedWith(Class<?> clazz, String fieldName, Class<? extends Annotation> annotation) {
-    try {
-      return clazz.getDeclaredField(fieldName)
-          .getDeclaredAnnotation(annotation) != null;
-    } catch (Exception e) {
-      logger.debug("Class %s not annotated with %s".formatted(clazz, fieldName), e);
-      return false;
-    }
-  }
-
-  private static NumberFormat toNumberFormat(Percentage percentage, Locale locale) {
-    var format = NumberFormat.getPercentInstance(locale);
-    if (percentage.maxFractionDigits() > -1) {
-      format.setMaximumFractionDigits(percentage.maxFractionDigits());
-    }
-    return format;
-  }
-
-  private static NumberFormat toNumberFormat(Money money, Locale locale) {
-    var currency = !money.currencyCode().isBlank()
-        ? Currency.getInstance(money.currencyCode()) :
-        Currency.getInstance(locale);
-    var format = NumberFormat.getCurrencyInstance(locale);
-    format.setCurrency(currency);
-    return format;
-  }
-
-  private static NumberFormat toNumberFormat(Numeric numeric, Locale locale) {
-    var format = NumberFormat.getNumberInstance(locale);
-    if (numeric.maxFractionDigits() != -1) {
-      format.setMaximumFractionDigits(numeric.maxFractionDigits());
-    }
-    if (numeric.minFractionDigits() != -1) {
-      format.setMinimumFractionDigits(numeric.minFractionDigits());
-    }
-    if (numeric.maxIntDigits() != -1) {
-      format.setMaximumIntegerDigits(numeric.maxIntDigits());
-    }
-    if (numeric.minIntDigits() != -1) {
-      format.setMinimumIntegerDigits(numeric.minIntDigits());
-    }
-    if (!numeric.currencyCode().equals("")) {
-      format.setCurrency(Currency.getInstance(numeric.currencyCode()));
-    }
-    format.setGroupingUsed(numeric.groupingUsed());
-    format.setParseIntegerOnly(numeric.parseIntegerOnly());
-    if (numeric.roundingMode() != RoundingMode.UNNECESSARY) {
-      format.setRoundingMode(numeric.roundingMode());
-    }
-    return format;
-  }
-
-  private static DateTimeFormatter toDateTimeFormatter(Format format) {
-    var formatter = DateTimeFormatter.ofPattern(format.value());
-    if (!format.zone().isBlank()) {
-      formatter = formatter.withZone(ZoneId.of(format.zone()));
-    }
-    if (!format.locale().isBlank()) {
-      formatter = formatter.withLocale(Locale.forLanguageTag(format.locale()));
-    }
-    return formatter;
-  }
-
   @Override
   public Optional<PlaceholderData> resolve(String placeholderName, Locale locale) {
     logger.debug("Trying to resolve placeholder {}", placeholderName);
@@ -139,32 +73,41 @@ public class ReflectionResolver implements PlaceholderResolver {
       if (customPlaceholderRegistry.governs(placeholderName)) {
         return customPlaceholderRegistry.resolve(placeholderName);
       }
-      var property = SELF_REFERENCE.equals(placeholderName) ? bean : pub.getProperty(bean, placeholderName);
+      if (bean == null) {
+        return Optional.empty();
+      }
+      var property = SELF_REFERENCE.equals(placeholderName) ? bean : getProperty(placeholderName);
       if (property == null) {
         return Optional.empty();
       }
       if (property instanceof Number number) {
-        var numberFormat = findNumberFormat(placeholderName, locale);
-        return Optional.of(new ScalarPlaceholderData(numberFormat.format(number)));
+        return Optional.of(formatNumber(placeholderName, number, locale));
+      } else if (property instanceof Boolean) {
+        return Optional.of(new ScalarPlaceholderData(property, property::toString));
       } else if (property instanceof Enum || property instanceof String || ReflectionUtils.isWrapperType(property.getClass())) {
         return Optional.of(new ScalarPlaceholderData(property.toString()));
       } else if (property instanceof Collection<?> collection) {
-        List<PlaceholderResolver> list = collection.stream()
-            .map(object -> new ReflectionResolver(object, customPlaceholderRegistry))
-            .collect(Collectors.toList());
-        return Optional.of(new IterablePlaceholderData(list, list.size()));
+        return Optional.of(new IterablePlaceholderData(Iterables.transform(collection, this::toResolver), collection.size()));
+      } else if (property instanceof Stream<?> stream) {
+        return Optional.of(new StreamPlaceholderData(stream.map(this::toResolver)));
+      } else if (property instanceof Iterator<?> iterator) {
+        return Optional.of(new StreamPlaceholderData(Streams.stream(iterator).map(this::toResolver)));
       } else if (property instanceof Temporal temporal) {
         return formatTemporal(placeholderName, temporal, locale);
-      } else if (property instanceof Path path && isFieldAnnotatedWith(bean.getClass(), placeholderName, Image.class)) {
-        return ReflectionUtils.findFieldAnnotation(bean.getClass(), placeholderName, Image.class)
-            .map(image -> new ImagePlaceholderData(path)
-                .withMaxWidth(image.maxWidth()));
+      } else if (property instanceof Path path) {
+        var image = findProperty(placeholderName).flatMap(PropertyMetadata::getImage);
+        if (image.isPresent()) {
+          return Optional.of(new ImagePlaceholderData(path)
+              .withMaxWidth(image.get().maxWidth()));
+        }
+      }
+      if (property instanceof Iterable<?> iterable && !(property instanceof Path)) {
+        return Optional.of(new IterablePlaceholderData(Iterables.transform(iterable, this::toResolver)));
       }
       if (bean.equals(property)) {
         return Optional.of(new IterablePlaceholderData(List.of(new ReflectionResolver(bean)), 1));
       } else {
-        var value = pub.getProperty(bean, placeholderName);
-        return Optional.of(new IterablePlaceholderData(List.of(new ReflectionResolver(value, customPlaceholderRegistry)), 1));
+        return Optional.of(new IterablePlaceholderData(List.of(new ReflectionResolver(property, customPlaceholderRegistry)), 1));
       }
     } catch (NoSuchMethodException | IllegalArgumentException e) {
       logger.debug("Did not find placeholder {}", placeholderName);
@@ -178,37 +121,57 @@ public class ReflectionResolver implements PlaceholderResolver {
     }
   }
 
+  private PlaceholderResolver toResolver(Object item) {
+    return new ReflectionResolver(item, customPlaceholderRegistry);
+  }
+
+  private Object getProperty(String name) throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+    var property = findProperty(name);
+    if (property.isPresent()) {
+      return property.get().get(bean);
+    }
+    return PROPERTY_UTILS.getProperty(bean, name);
+  }
+
+  /**
+   * Finds the getter of a property. {@link Map}s are resolved by key like {@link PropertyUtilsBean} does, so keys like
+   * {@code empty} or {@code class} are never shadowed by the getters of the map.
+   */
+  private Optional<PropertyMetadata> findProperty(String name) {
+    if (bean instanceof Map) {
+      return Optional.empty();
+    }
+    return BeanMetadata.of(bean.getClass()).property(name);
+  }
+
+  /**
+   * Formats the temporal with its {@link com.docutools.jocument.annotations.Format}, or keeps the typed value and formats
+   * it according to the locale only if it is inserted as text.
+   */
   private Optional<PlaceholderData> formatTemporal(String placeholderName, Temporal time, Locale locale) {
-    Optional<DateTimeFormatter> formatter;
-    if (isFieldAnnotatedWith(bean.getClass(), placeholderName, Format.class)) {
-      formatter = ReflectionUtils.findFieldAnnotation(bean.getClass(), placeholderName, Format.class)
-          .map(ReflectionResolver::toDateTimeFormatter);
-    } else {
-      if (time instanceof LocalDate) {
-        formatter = Optional.of(DateTimeFormatter.ofLocalizedDate(FormatStyle.SHORT));
-      } else if (time instanceof LocalTime) {
-        formatter = Optional.of(DateTimeFormatter.ofLocalizedTime(FormatStyle.SHORT));
-      } else if (time instanceof LocalDateTime) {
-        formatter = Optional.of(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.SHORT));
-      } else {
-        logger.warn("Failed to format placeholder {} as temporal {}", placeholderName, time);
-        formatter = Optional.empty();
-      }
-      formatter = formatter.map(dateTimeFormatter -> dateTimeFormatter.withLocale(locale));
+    Optional<DateTimeFormatter> formatter = findProperty(placeholderName).flatMap(PropertyMetadata::getDateTimeFormatter);
+    if (formatter.isPresent()) {
+      return Optional.of(new ScalarPlaceholderData(formatter.get().format(time)));
     }
-    return formatter.map(dateTimeFormatter -> new ScalarPlaceholderData(dateTimeFormatter.format(time)));
+    formatter = FormatterCache.getLocalizedFormatter(time, locale);
+    if (formatter.isEmpty()) {
+      logger.warn("Failed to format placeholder {} as temporal {}", placeholderName, time);
+    }
+    return formatter.map(dateTimeFormatter -> new ScalarPlaceholderData(time, () -> dateTimeFormatter.format(time)));
   }
 
-  private NumberFormat findNumberFormat(String fieldName, Locale locale) {
-    return ReflectionUtils.findFieldAnnotation(bean.getClass(), fieldName, Percentage.class)
-        .map(percentage -> toNumberFormat(percentage, locale))
-        .or(() -> ReflectionUtils.findFieldAnnotation(bean.getClass(), fieldName, Money.class)
-            .map(money -> toNumberFormat(money, locale)))
-        .or(() -> ReflectionUtils.findFieldAnnotation(bean.getClass(), fieldName, Numeric.class)
-            .map(numeric -> toNumberFormat(numeric, locale)))
-        .orElseGet(() -> {
-          logger.info("Did not find formatting directive for {}, formatting according to locale {}", fieldName, locale);
-          return NumberFormat.getInstance(locale);
-        });
+  /**
+   * Formats the number with its formatting annotation, or keeps the typed value and formats it according to the locale
+   * only if it is inserted as text.
+   */
+  private PlaceholderData formatNumber(String fieldName, Number number, Locale locale) {
+    Optional<NumberFormat> numberFormat = findProperty(fieldName)
+        .flatMap(PropertyMetadata::getNumberFormat)
+        .map(annotation -> FormatterCache.getNumberFormat(annotation, locale));
+    if (numberFormat.isPresent()) {
+      return new ScalarPlaceholderData(numberFormat.get().format(number));
+    }
+    logger.debug("Did not find formatting directive for {}, formatting according to locale {}", fieldName, locale);
+    return new ScalarPlaceholderData(number, () -> FormatterCache.getNumberFormat(locale).format(number));
   }
 }
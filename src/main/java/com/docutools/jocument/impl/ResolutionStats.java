@@ -0,0 +1,43 @@
+package com.docutools.jocument.impl;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit and miss counts of a {@link CachingPlaceholderResolver}, shared by the resolvers of all its loop items.
+ */
+public final class ResolutionStats {
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  void recordHit() {
+    hits.increment();
+  }
+
+  void recordMiss() {
+    misses.increment();
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * Get the share of resolutions answered from the cache.
+   *
+   * @return the hit rate between 0 and 1, 0 if nothing has been resolved yet
+   */
+  public double getHitRate() {
+    long hitCount = getHits();
+    long total = hitCount + getMisses();
+    return total == 0 ? 0 : (double) hitCount / total;
+  }
+
+  @Override
+  public String toString() {
+    return "ResolutionStats{hits=%d, misses=%d}".formatted(getHits(), getMisses());
+  }
+}
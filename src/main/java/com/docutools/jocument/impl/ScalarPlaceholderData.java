@@ -2,13 +2,29 @@ package com.docutools.jocument.impl;
 
 import com.docutools.jocument.PlaceholderData;
 import com.docutools.jocument.PlaceholderType;
+import com.google.common.base.Suppliers;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 public class ScalarPlaceholderData implements PlaceholderData {
 
-  private final String value;
+  private final Object value;
+  private final Supplier<String> text;
 
   public ScalarPlaceholderData(String value) {
+    this.value = null;
+    this.text = () -> value;
+  }
+
+  /**
+   * Creates a scalar with a typed value, which is only formatted if the placeholder is inserted as text.
+   *
+   * @param value     the unformatted value, e.g. a {@link Number}
+   * @param formatter formats the value, called at most once
+   */
+  public ScalarPlaceholderData(Object value, Supplier<String> formatter) {
     this.value = value;
+    this.text = Suppliers.memoize(formatter::get);
   }
 
   @Override
@@ -16,8 +32,13 @@ public class ScalarPlaceholderData implements PlaceholderData {
     return PlaceholderType.SCALAR;
   }
 
+  @Override
+  public Optional<Object> getValue() {
+    return Optional.ofNullable(value);
+  }
+
   @Override
   public String toString() {
-    return value;
+    return text.get();
   }
 }
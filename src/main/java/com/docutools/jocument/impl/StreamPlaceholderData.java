@@ -0,0 +1,35 @@
+package com.docutools.jocument.impl;
+
+import com.docutools.jocument.PlaceholderData;
+import com.docutools.jocument.PlaceholderResolver;
+import com.docutools.jocument.PlaceholderType;
+import java.util.stream.Stream;
+
+/**
+ * A {@link com.docutools.jocument.PlaceholderType#SET} backed by a single-use {@link java.util.stream.Stream}, e.g.
+ * from a database cursor, whose items are only resolved while the loop is rendered.
+ * The number of items is unknown and the data can only be streamed once.
+ */
+public class StreamPlaceholderData implements PlaceholderData {
+
+  private final Stream<PlaceholderResolver> stream;
+  private boolean streamed = false;
+
+  public StreamPlaceholderData(Stream<PlaceholderResolver> stream) {
+    this.stream = stream;
+  }
+
+  @Override
+  public PlaceholderType getType() {
+    return PlaceholderType.SET;
+  }
+
+  @Override
+  public synchronized Stream<PlaceholderResolver> stream() {
+    if (streamed) {
+      throw new IllegalStateException("The items have already been streamed.");
+    }
+    streamed = true;
+    return stream;
+  }
+}
@@ -0,0 +1,118 @@
+package com.docutools.jocument.impl;
+
+import com.docutools.jocument.PlaceholderData;
+import com.docutools.jocument.PlaceholderResolver;
+import com.docutools.jocument.PlaceholderType;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A {@link com.docutools.jocument.PlaceholderType#SET} reading the elements of a JSON array one by one from a
+ * {@link com.google.gson.stream.JsonReader}, so only the element currently rendered is held in memory. The number of
+ * elements is only known after reading them, so {@link #count()} is not supported.
+ *
+ * @see JsonResolver#streamArray(java.io.Reader)
+ * @see JsonResolver#withStreamedArray(String, java.io.Reader)
+ */
+class StreamedJsonArrayPlaceholderData implements PlaceholderData {
+  private static final Logger logger = LogManager.getLogger();
+
+  private final JsonReader reader;
+  private final ImageDetector imageDetector;
+  private final ImagePrefetcher imagePrefetcher;
+  private final boolean ownsPrefetcher;
+  private boolean streamed = false;
+
+  StreamedJsonArrayPlaceholderData(JsonReader reader, ImageDetector imageDetector, ImagePrefetcher imagePrefetcher,
+                                   boolean ownsPrefetcher) throws IOException {
+    this.reader = reader;
+    this.imageDetector = imageDetector;
+    this.imagePrefetcher = imagePrefetcher;
+    this.ownsPrefetcher = ownsPrefetcher;
+    reader.beginArray();
+  }
+
+  @Override
+  public PlaceholderType getType() {
+    return PlaceholderType.SET;
+  }
+
+  @Override
+  public synchronized Stream<PlaceholderResolver> stream() {
+    if (streamed) {
+      throw new IllegalStateException("The JSON array has already been streamed.");
+    }
+    streamed = true;
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new ElementIterator(), Spliterator.ORDERED), false)
+        .onClose(this::close);
+  }
+
+  /**
+   * The number of elements is unknown before they have been streamed.
+   *
+   * @throws UnsupportedOperationException always
+   */
+  @Override
+  public long count() {
+    throw new UnsupportedOperationException("The number of elements of a streamed JSON array is unknown.");
+  }
+
+  /**
+   * Closes the reader and the image prefetcher, if it has been created for this array. Called when the stream is
+   * closed, after the images of the last element have been inserted.
+   */
+  void close() {
+    closeReader();
+    if (ownsPrefetcher) {
+      imagePrefetcher.close();
+    }
+  }
+
+  private void closeReader() {
+    try {
+      reader.close();
+    } catch (IOException e) {
+      logger.warn("Could not close JSON reader", e);
+    }
+  }
+
+  private class ElementIterator implements Iterator<PlaceholderResolver> {
+    private boolean finished = false;
+
+    @Override
+    public boolean hasNext() {
+      if (finished) {
+        return false;
+      }
+      try {
+        if (reader.hasNext()) {
+          return true;
+        }
+        reader.endArray();
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not read the next element of the JSON array.", e);
+      }
+      finished = true;
+      closeReader();
+      return false;
+    }
+
+    @Override
+    public PlaceholderResolver next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return new JsonResolver(JsonParser.parseReader(reader), imageDetector, imagePrefetcher, false);
+    }
+  }
+}
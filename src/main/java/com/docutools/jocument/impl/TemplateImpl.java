@@ -1,7 +1,9 @@
 package com.docutools.jocument.impl;
 
 import com.docutools.jocument.Document;
+import com.docutools.jocument.ExcelWriterOptions;
 import com.docutools.jocument.MimeType;
+import com.docutools.jocument.PlaceholderIndex;
 import com.docutools.jocument.PlaceholderResolver;
 import com.docutools.jocument.Template;
 import com.docutools.jocument.TemplateSource;
@@ -9,7 +11,9 @@ import com.docutools.jocument.impl.excel.implementations.ExcelDocumentImpl;
 import com.docutools.jocument.impl.word.WordDocumentImpl;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Locale;
+import java.util.concurrent.Executor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.poi.ss.formula.eval.NotImplementedException;
@@ -20,6 +24,7 @@ public class TemplateImpl implements Template {
   private final TemplateSource source;
   private final MimeType mimeType;
   private final Locale locale;
+  private final ExcelWriterOptions excelWriterOptions;
 
   /**
    * Create a new template object from {@link TemplateSource} {@code source}.
@@ -29,9 +34,22 @@ public class TemplateImpl implements Template {
    * @param locale   The locale to use when generating the report
    */
   public TemplateImpl(TemplateSource source, MimeType mimeType, Locale locale) {
+    this(source, mimeType, locale, ExcelWriterOptions.defaults());
+  }
+
+  /**
+   * Create a new template object from {@link TemplateSource} {@code source}.
+   *
+   * @param source             The source to create the template from
+   * @param mimeType           The mime type of the template and the document to generate
+   * @param locale             The locale to use when generating the report
+   * @param excelWriterOptions The options of the writer generating excel reports
+   */
+  public TemplateImpl(TemplateSource source, MimeType mimeType, Locale locale, ExcelWriterOptions excelWriterOptions) {
     this.source = source;
     this.mimeType = mimeType;
     this.locale = locale;
+    this.excelWriterOptions = excelWriterOptions;
   }
 
   @Override
@@ -44,21 +62,60 @@ public class TemplateImpl implements Template {
     return locale;
   }
 
+  @Override
+  public ExcelWriterOptions getExcelWriterOptions() {
+    return excelWriterOptions;
+  }
+
+  @Override
+  public Template withExcelWriterOptions(ExcelWriterOptions options) {
+    return new TemplateImpl(source, mimeType, locale, options);
+  }
+
   @Override
   public Document startGeneration(PlaceholderResolver resolver) {
+    return startGeneration(resolver, GenerationExecutors.getDefault());
+  }
+
+  @Override
+  public Document startGeneration(PlaceholderResolver resolver, Executor executor) {
     logger.info("Starting generating from template {} with resolver {}", this, resolver);
-    var document = switch (mimeType) {
-      case DOCX -> new WordDocumentImpl(this, resolver);
-      case XLSX -> new ExcelDocumentImpl(this, resolver);
-      default -> throw new NotImplementedException("Template generation is not implemented for mime type %s yet".formatted(mimeType));
-    };
-    document.start();
-    logger.info("Finished generating from template {} with resolver {}", this, resolver);
+    var document = createDocument(resolver);
+    executor.execute(document);
+    logger.info("Submitted generation from template {} with resolver {}", this, resolver);
     return document;
   }
 
+  @Override
+  public void generate(PlaceholderResolver resolver, OutputStream out) throws IOException {
+    logger.info("Generating from template {} with resolver {} to stream", this, resolver);
+    createDocument(resolver).generateTo(out);
+  }
+
+  @Override
+  public Template compile() throws IOException {
+    logger.info("Compiling template {}", this);
+    try (var in = openStream()) {
+      return new CompiledTemplateImpl(in.readAllBytes(), mimeType, locale).withExcelWriterOptions(excelWriterOptions);
+    }
+  }
+
+  @Override
+  public PlaceholderIndex placeholders() throws IOException {
+    logger.info("Indexing placeholders of template {}", this);
+    return compile().placeholders();
+  }
+
   @Override
   public InputStream openStream() throws IOException {
     return source.open();
   }
+
+  private DocumentImpl createDocument(PlaceholderResolver resolver) {
+    return switch (mimeType) {
+      case DOCX -> new WordDocumentImpl(this, resolver);
+      case XLSX -> new ExcelDocumentImpl(this, resolver, excelWriterOptions);
+      default -> throw new NotImplementedException("Template generation is not implemented for mime type %s yet".formatted(mimeType));
+    };
+  }
 }
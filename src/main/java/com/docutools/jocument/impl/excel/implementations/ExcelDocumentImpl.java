@@ -1,13 +1,15 @@
 package com.docutools.jocument.impl.excel.implementations;
 
+import com.docutools.jocument.ExcelWriterOptions;
+import com.docutools.jocument.GenerationPhase;
 import com.docutools.jocument.PlaceholderResolver;
 import com.docutools.jocument.Template;
 import com.docutools.jocument.impl.DocumentImpl;
-import com.docutools.jocument.impl.excel.interfaces.ExcelWriter;
+import com.docutools.jocument.impl.GenerationListeners;
 import com.docutools.jocument.impl.excel.util.ExcelUtils;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Iterator;
 import java.util.Locale;
 import org.apache.logging.log4j.LogManager;
@@ -20,6 +22,9 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 /**
  * This class is responsible for setting up the necessary streams for generating excel document from templates
  * and for passing each sheet of a workbook to the excel generator.
+ * Only the template is loaded into memory, the generated rows are streamed to the output by the {@link SXSSFWriter}.
+ * As long as the resolver provides loop items lazily, e.g. from a {@link java.util.stream.Stream}, the heap used by
+ * the generation is bounded by the size of the template and the row window of the writer.
  *
  * @author Anton Oellerer
  * @since 2020-04-07
@@ -27,6 +32,8 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 public class ExcelDocumentImpl extends DocumentImpl {
   private static final Logger logger = LogManager.getLogger();
 
+  private final ExcelWriterOptions options;
+
   /**
    * The constructor for a new ExcelDocument report generator.
    *
@@ -34,22 +41,36 @@ public class ExcelDocumentImpl extends DocumentImpl {
    * @param resolver The resolver to use for filling placeholders
    */
   public ExcelDocumentImpl(Template template, PlaceholderResolver resolver) {
-    super(template, resolver);
+    this(template, resolver, ExcelWriterOptions.defaults());
+  }
+
+  /**
+   * The constructor for a new ExcelDocument report generator.
+   *
+   * @param template The template to generate the report from
+   * @param resolver The resolver to use for filling placeholders
+   * @param options  The options of the writer streaming the report
+   */
+  public ExcelDocumentImpl(Template template, PlaceholderResolver resolver, ExcelWriterOptions options) {
+    super(template, resolver, ".xlsx");
+    this.options = options;
   }
 
   /**
    * Start generation of a excel report from the template supplied in the constructor, using the also supplied
    * resolver for resolving placeholders.
    *
-   * @return The path to the generated report
+   * @param out The stream to write the generated report to
    * @throws IOException If reading of the template or writing of the report fails.
    */
   @Override
-  protected Path generate() throws IOException {
+  protected void generate(OutputStream out) throws IOException {
     logger.info("Starting generation");
-    Path file = Files.createTempFile("document", ".xlsx");
-    ExcelWriter excelWriter = new SXSSFWriter(file);
-    try (XSSFWorkbook workbook = new XSSFWorkbook(template.openStream())) {
+    long parsingStart = GenerationListeners.start();
+    // The writer is created once the template has been parsed and closed on every path, deleting its temporary files
+    try (InputStream in = template.openStream(); XSSFWorkbook workbook = new XSSFWorkbook(in);
+         SXSSFWriter excelWriter = new SXSSFWriter(out, options)) {
+      GenerationListeners.phaseCompleted(GenerationPhase.PARSING, parsingStart);
       var locale = ExcelUtils.getWorkbookLanguage(workbook).orElse(Locale.getDefault());
       LocaleUtil.setUserLocale(locale);
       logger.info("Set user locale to {}", locale);
@@ -62,6 +83,6 @@ public class ExcelDocumentImpl extends DocumentImpl {
       }
       excelWriter.complete();
     }
-    return file;
+    logger.info("Finished generation");
   }
 }
@@ -1,24 +1,37 @@
 package com.docutools.jocument.impl.excel.implementations;
 
+import com.docutools.jocument.GenerationPhase;
 import com.docutools.jocument.PlaceholderData;
 import com.docutools.jocument.PlaceholderResolver;
 import com.docutools.jocument.PlaceholderType;
+import com.docutools.jocument.impl.DocumentImpl;
+import com.docutools.jocument.impl.GenerationListeners;
 import com.docutools.jocument.impl.ParsingUtils;
+import com.docutools.jocument.impl.PlaceholderText;
 import com.docutools.jocument.impl.excel.interfaces.ExcelWriter;
 import com.docutools.jocument.impl.excel.util.ExcelUtils;
 import com.google.common.collect.Lists;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.StreamSupport;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.util.LocaleUtil;
 
 
 /**
@@ -31,6 +44,11 @@ import org.apache.poi.ss.usermodel.Row;
  */
 public class ExcelGenerator {
   private static final Logger logger = LogManager.getLogger();
+  /**
+   * The built-in date formats of excel, which are displayed according to the locale of the reader.
+   */
+  private static final String DATE_FORMAT = BuiltinFormats.getBuiltinFormat(0xe);
+  private static final String DATE_TIME_FORMAT = BuiltinFormats.getBuiltinFormat(0x16);
 
   private final ExcelWriter excelWriter;
   private final PlaceholderResolver resolver;
@@ -63,18 +81,22 @@ public class ExcelGenerator {
   private void generate() {
     logger.debug("Starting generation by applying resolver {}", resolver);
     for (Iterator<Row> iterator = rowIterator; iterator.hasNext(); ) {
+      DocumentImpl.checkCancellation();
       Row row = iterator.next();
 
-      if (isLoopStart(row)) {
-        handleLoop(row, iterator);
+      var loopData = getLoopData(row);
+      if (loopData.isPresent()) {
+        handleLoop(row, iterator, loopData.get());
       } else {
         excelWriter.newRow(row);
         for (Cell cell : row) {
           if (ExcelUtils.isSimpleCell(cell)) {
             excelWriter.addCell(cell);
           } else {
-            var newCellText = resolver.resolve(ExcelUtils.getPlaceholder(cell)).orElseThrow();
-            excelWriter.addCell(cell, newCellText.toString());
+            var placeholderName = ExcelUtils.getPlaceholder(cell);
+            var placeholderData = resolve(placeholderName);
+            GenerationListeners.placeholderResolved(placeholderName, placeholderData.isPresent());
+            addCell(cell, placeholderData.orElseThrow());
           }
         }
       }
@@ -86,20 +108,81 @@ public class ExcelGenerator {
     logger.debug("Finished generation of elements by resolver {}", resolver);
   }
 
-  private void handleLoop(Row row, Iterator<Row> iterator) {
+  /**
+   * Writes the placeholder data to a cell of the type of its value, if the cell consists of the placeholder only.
+   * Values without a native cell type, and cells with further text, are filled with the formatted text. Numbers a
+   * numeric cell can not hold without losing digits are filled with their exact text. Excel dates have no time zone, so
+   * zoned and offset date times are converted to the same instant in the user time zone of {@link LocaleUtil}.
+   */
+  private void addCell(Cell cell, PlaceholderData placeholderData) {
+    var value = PlaceholderText.scan(cell.getStringCellValue()).isExactPlaceholder() ? placeholderData.getValue() : Optional.empty();
+    if (value.isEmpty()) {
+      excelWriter.addCell(cell, placeholderData.toString());
+    } else if (value.get() instanceof Number number) {
+      if (isExactDouble(number)) {
+        excelWriter.addCell(cell, number.doubleValue());
+      } else {
+        logger.debug("Writing number {} as text, since it is not exactly representable as double", number);
+        excelWriter.addCell(cell, number instanceof BigDecimal decimal ? decimal.toPlainString() : number.toString());
+      }
+    } else if (value.get() instanceof Boolean bool) {
+      excelWriter.addCell(cell, bool.booleanValue());
+    } else if (value.get() instanceof LocalDate date) {
+      excelWriter.addCell(cell, date.atStartOfDay(), DATE_FORMAT);
+    } else if (value.get() instanceof LocalDateTime dateTime) {
+      excelWriter.addCell(cell, dateTime, DATE_TIME_FORMAT);
+    } else if (value.get() instanceof ZonedDateTime dateTime) {
+      excelWriter.addCell(cell, dateTime.withZoneSameInstant(userZone()).toLocalDateTime(), DATE_TIME_FORMAT);
+    } else if (value.get() instanceof OffsetDateTime dateTime) {
+      excelWriter.addCell(cell, dateTime.atZoneSameInstant(userZone()).toLocalDateTime(), DATE_TIME_FORMAT);
+    } else {
+      excelWriter.addCell(cell, placeholderData.toString());
+    }
+  }
+
+  private static ZoneId userZone() {
+    return LocaleUtil.getUserTimeZone().toZoneId();
+  }
+
+  /**
+   * Checks whether a numeric cell, which stores a double, keeps the number unchanged. Large longs, or
+   * {@link BigDecimal}s and {@link java.math.BigInteger}s with more digits than a double holds, would be rounded.
+   */
+  private static boolean isExactDouble(Number number) {
+    double value = number.doubleValue();
+    if (!Double.isFinite(value)) {
+      return false;
+    }
+    if (number instanceof Double || number instanceof Float || number instanceof Integer || number instanceof Short
+        || number instanceof Byte) {
+      return true;
+    }
+    try {
+      // Compared to the shortest decimal of the double, so decimals like 19.99 are still written as numbers
+      return new BigDecimal(number.toString()).compareTo(BigDecimal.valueOf(value)) == 0;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  private void handleLoop(Row row, Iterator<Row> iterator, PlaceholderData placeholderData) {
     logger.debug("Handling loop at row {}", row.getRowNum());
     var loopBody = getLoopBody(row, iterator);
     var loopBodySize = getLoopBodySize(loopBody);
     logger.debug("Loop body size: {}", loopBodySize);
     var finalLoopBody = loopBody.subList(1, loopBody.size() - 1);
-    var placeholderData = getPlaceholderData(row);
-    placeholderData.stream()
-        .forEach(placeholderResolver -> {
-          excelWriter.addRowOffset(-1); //So we also fill the cell of the loop start placeholder
-          ExcelGenerator.apply(placeholderResolver, finalLoopBody.iterator(), excelWriter, nestedLoopDepth + 1);
-          excelWriter.addRowOffset(1); //To avoid subtracting the placeholder size multiple times
-          excelWriter.addRowOffset(loopBodySize);
-        });
+    var iterations = new AtomicLong();
+    // Items are resolved and written one at a time, the stream is closed afterwards to release resources like cursors
+    try (var items = placeholderData.stream()) {
+      items.forEach(placeholderResolver -> {
+        excelWriter.addRowOffset(-1); //So we also fill the cell of the loop start placeholder
+        ExcelGenerator.apply(placeholderResolver, finalLoopBody.iterator(), excelWriter, nestedLoopDepth + 1);
+        excelWriter.addRowOffset(1); //To avoid subtracting the placeholder size multiple times
+        excelWriter.addRowOffset(loopBodySize);
+        iterations.incrementAndGet();
+      });
+    }
+    GenerationListeners.loopUnrolled(ExcelUtils.getPlaceholder(row), iterations.get());
     var loopPlaceholderSize = getLoopSize(loopBody);
     excelWriter.addRowOffset(-1 * loopPlaceholderSize);
     logger.debug("Subtracting row offset of {}", loopPlaceholderSize);
@@ -109,14 +192,15 @@ public class ExcelGenerator {
   private List<Row> getLoopBody(Row row, Iterator<Row> iterator) {
     var placeholder = ExcelUtils.getPlaceholder(row);
     logger.debug("Unrolling loop of {}", placeholder);
-    LinkedList<Row> rowBuffer = new LinkedList<>();
+    // Only the template rows of the loop are buffered, the generated rows are streamed by the writer
+    List<Row> rowBuffer = new ArrayList<>();
     rowBuffer.add(row);
     var rowInFocus = iterator.next();
     while (!ExcelUtils.isMatchingLoopEnd(rowInFocus, placeholder)) {
-      rowBuffer.addLast(rowInFocus);
+      rowBuffer.add(rowInFocus);
       rowInFocus = iterator.next();
     }
-    rowBuffer.addLast(rowInFocus);
+    rowBuffer.add(rowInFocus);
     logger.debug("Unrolled loop of {}", placeholder);
     return rowBuffer;
   }
@@ -142,28 +226,28 @@ public class ExcelGenerator {
     return loopBody.get(loopBody.size() - 1).getRowNum() - loopBody.get(0).getRowNum() + 1;  //inclusive
   }
 
-  private PlaceholderData getPlaceholderData(Row row) {
-    var placeholder = ExcelUtils.getPlaceholder(row.getCell(row.getFirstCellNum()));
-    logger.debug("Resolving placeholder of {}", placeholder);
-    return resolver
-        .resolve(placeholder)
-        .filter(p -> p.getType() == PlaceholderType.SET)
-        .orElseThrow();
+  private Optional<PlaceholderData> resolve(String placeholderName) {
+    long start = GenerationListeners.start();
+    var placeholderData = resolver.resolve(placeholderName);
+    GenerationListeners.phaseCompleted(GenerationPhase.RESOLUTION, start);
+    return placeholderData;
   }
 
-
-  private boolean isLoopStart(Row row) {
+  /**
+   * Resolves the data of the loop started by the row, if it is a loop start. The data is used for unrolling the loop
+   * as well, since streamed data may only be resolved and consumed once.
+   */
+  private Optional<PlaceholderData> getLoopData(Row row) {
     if (ExcelUtils.getNumberOfNonEmptyCells(row) == 1) {
       var cell = row.getCell(row.getFirstCellNum());
       if (cell.getCellType() == CellType.STRING) {
-        return resolver.resolve(
-            ParsingUtils.stripBrackets(
-                cell.getStringCellValue()
-            )).map(PlaceholderData::getType)
-            .map(type -> type == PlaceholderType.SET)
-            .orElse(false);
+        var placeholder = ParsingUtils.stripBrackets(cell.getStringCellValue());
+        var placeholderData = resolve(placeholder)
+            .filter(data -> data.getType() == PlaceholderType.SET);
+        placeholderData.ifPresent(data -> GenerationListeners.placeholderResolved(placeholder, true));
+        return placeholderData;
       }
     }
-    return false;
+    return Optional.empty();
   }
 }
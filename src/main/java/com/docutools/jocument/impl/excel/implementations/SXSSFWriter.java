@@ -1,23 +1,37 @@
 package com.docutools.jocument.impl.excel.implementations;
 
+import com.docutools.jocument.ExcelWriterOptions;
+import com.docutools.jocument.GenerationPhase;
+import com.docutools.jocument.impl.GenerationListeners;
 import com.docutools.jocument.impl.excel.interfaces.ExcelWriter;
+import com.google.common.io.CountingOutputStream;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.util.LocaleUtil;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 /**
  * This is a streamed implementation of the {@link com.docutools.jocument.impl.excel.interfaces.ExcelWriter} interface.
  * The streaming is done so memory can be saved.
- * For now, the amount of rows kept in memory is set to the default, 100.
+ * The amount of rows kept in memory is set by the {@link ExcelWriterOptions}, 100 by default, older rows are flushed to
+ * a temporary file.
+ * Together with lazily resolved loop data the heap used for writing is therefore bounded by that window, no matter
+ * how many rows are generated.
+ * The writer has to be closed after the generation, also if it fails, to delete these temporary files.
  * SXSSFWriter works by keeping a reference to the current sheet and row being edited, and copying/cloning required
  * values on the creation of new objects.
  * This is why to the `new...`/`add...` methods the original references of the template should be passed.
@@ -27,24 +41,50 @@ import org.apache.poi.xssf.streaming.SXSSFWorkbook;
  * @author Anton Oellerer
  * @since 2020-04-02
  */
-public class SXSSFWriter implements ExcelWriter {
+public class SXSSFWriter implements ExcelWriter, AutoCloseable {
   private static final Logger logger = LogManager.getLogger();
 
-  private final Path path;
+  private final OutputStream outputStream;
   private final SXSSFWorkbook workbook;
+  /**
+   * The styles of the report by the index of the template style they are cloned from. Keyed by index, since the
+   * template workbook creates a new style object on every access.
+   */
+  private final Map<Short, CellStyle> styles = new HashMap<>();
+  private final Map<String, CellStyle> dateStyles = new HashMap<>();
   private Sheet currentSheet;
   private Row currentRow;
   private int rowOffset = 0;
 
+  /**
+   * Creates a new SXSSFWriter with the default {@link ExcelWriterOptions}.
+   *
+   * @param outputStream The stream to write the finished report to, not closed by the writer.
+   */
+  public SXSSFWriter(OutputStream outputStream) {
+    this(outputStream, ExcelWriterOptions.defaults());
+  }
+
   /**
    * Creates a new SXSSFWriter.
    *
-   * @param path The path to save the finished report to.
+   * @param outputStream The stream to write the finished report to, not closed by the writer.
+   * @param options      The row window, temp file compression, string storage and temp directory to write with.
    */
-  public SXSSFWriter(Path path) {
-    workbook = new SXSSFWorkbook();
+  public SXSSFWriter(OutputStream outputStream, ExcelWriterOptions options) {
+    workbook = createWorkbook(options);
     workbook.setForceFormulaRecalculation(true);
-    this.path = path;
+    this.outputStream = outputStream;
+  }
+
+  static SXSSFWorkbook createWorkbook(ExcelWriterOptions options) {
+    logger.debug("Creating workbook with {}", options);
+    int window = options.getRowAccessWindowSize();
+    boolean compress = options.isCompressTempFiles();
+    boolean sharedStrings = options.isSharedStringsTable();
+    return options.getTempDirectory()
+        .<SXSSFWorkbook>map(directory -> new TempDirectoryWorkbook(window, compress, sharedStrings, directory))
+        .orElseGet(() -> new SXSSFWorkbook(null, window, compress, sharedStrings));
   }
 
   @Override
@@ -73,6 +113,7 @@ public class SXSSFWriter implements ExcelWriter {
     currentSheet.setRowSumsRight(sheet.getRowSumsRight());
     currentSheet.setSelected(sheet.isSelected());
     currentSheet.setVerticallyCenter(sheet.getVerticallyCenter());
+    copyColumnWidths(sheet);
   }
 
   @Override
@@ -80,7 +121,9 @@ public class SXSSFWriter implements ExcelWriter {
     logger.debug("Creating new row {}", row.getRowNum());
     currentRow = currentSheet.createRow(row.getRowNum() + rowOffset);
     currentRow.setHeight(row.getHeight());
-    currentRow.setRowStyle(row.getRowStyle());
+    if (row.getRowStyle() != null) {
+      currentRow.setRowStyle(getStyle(row.getRowStyle()));
+    }
     currentRow.setZeroHeight(row.getZeroHeight());
   }
 
@@ -88,13 +131,8 @@ public class SXSSFWriter implements ExcelWriter {
   public void addCell(Cell cell) {
     logger.debug("Creating new cell {} {}", cell.getColumnIndex(), cell.getRow().getRowNum());
     var newCell = currentRow.createCell(cell.getColumnIndex(), cell.getCellType());
-    if (workbook.getCellStyleAt(cell.getCellStyle().getIndex()) == null) {
-      copyCellStyle(cell.getCellStyle());
-    }
-    newCell.setCellComment(cell.getCellComment());
-    newCell.setCellStyle(cell.getCellStyle());
-    newCell.setHyperlink(cell.getHyperlink());
-    currentSheet.setColumnWidth(cell.getColumnIndex(), cell.getSheet().getColumnWidth(cell.getColumnIndex()));
+    newCell.setCellStyle(getStyle(cell.getCellStyle()));
+    copyAnnotations(cell, newCell);
     switch (cell.getCellType()) {
       case _NONE -> {
       }
@@ -114,21 +152,59 @@ public class SXSSFWriter implements ExcelWriter {
     logger.debug("Creating new cell {} {} with text {}",
         templateCell.getColumnIndex(), templateCell.getRow().getRowNum(), newCellText);
     var newCell = currentRow.createCell(templateCell.getColumnIndex(), templateCell.getCellType());
-    if (workbook.getCellStyleAt(templateCell.getCellStyle().getIndex()) == null) {
-      copyCellStyle(templateCell.getCellStyle());
-    }
-    newCell.setCellComment(templateCell.getCellComment());
-    newCell.setCellStyle(templateCell.getCellStyle());
-    newCell.setHyperlink(templateCell.getHyperlink());
-    currentSheet.setColumnWidth(templateCell.getColumnIndex(), templateCell.getSheet().getColumnWidth(templateCell.getColumnIndex()));
+    newCell.setCellStyle(getStyle(templateCell.getCellStyle()));
+    copyAnnotations(templateCell, newCell);
     newCell.setCellValue(newCellText);
   }
 
+  @Override
+  public void addCell(Cell templateCell, double value) {
+    logger.debug("Creating new numeric cell {} {} with value {}",
+        templateCell.getColumnIndex(), templateCell.getRow().getRowNum(), value);
+    var newCell = currentRow.createCell(templateCell.getColumnIndex(), CellType.NUMERIC);
+    newCell.setCellStyle(getStyle(templateCell.getCellStyle()));
+    copyAnnotations(templateCell, newCell);
+    newCell.setCellValue(value);
+  }
+
+  @Override
+  public void addCell(Cell templateCell, boolean value) {
+    logger.debug("Creating new boolean cell {} {} with value {}",
+        templateCell.getColumnIndex(), templateCell.getRow().getRowNum(), value);
+    var newCell = currentRow.createCell(templateCell.getColumnIndex(), CellType.BOOLEAN);
+    newCell.setCellStyle(getStyle(templateCell.getCellStyle()));
+    copyAnnotations(templateCell, newCell);
+    newCell.setCellValue(value);
+  }
+
+  @Override
+  public void addCell(Cell templateCell, LocalDateTime value, String dataFormat) {
+    logger.debug("Creating new date cell {} {} with value {}",
+        templateCell.getColumnIndex(), templateCell.getRow().getRowNum(), value);
+    var newCell = currentRow.createCell(templateCell.getColumnIndex(), CellType.NUMERIC);
+    newCell.setCellStyle(getDateStyle(templateCell.getCellStyle(), dataFormat));
+    copyAnnotations(templateCell, newCell);
+    // Converted in the time zone POI uses for converting dates back, so the local date time is kept
+    newCell.setCellValue(Date.from(value.atZone(LocaleUtil.getUserTimeZone().toZoneId()).toInstant()));
+  }
+
   @Override
   public void complete() throws IOException {
-    var outputStream = new BufferedOutputStream(Files.newOutputStream(path));
-    workbook.write(outputStream);
-    outputStream.close();
+    long start = GenerationListeners.start();
+    var countingOutputStream = new CountingOutputStream(outputStream);
+    var bufferedOutputStream = new BufferedOutputStream(countingOutputStream);
+    workbook.write(bufferedOutputStream);
+    bufferedOutputStream.flush();
+    GenerationListeners.phaseCompleted(GenerationPhase.WRITING, start);
+    GenerationListeners.bytesWritten(countingOutputStream.getCount());
+  }
+
+  /**
+   * Deletes the temporary files of the flushed rows, whether the report has been completed or the generation failed.
+   */
+  @Override
+  public void close() {
+    logger.debug("Disposing temporary files of workbook");
     workbook.dispose();
   }
 
@@ -137,8 +213,63 @@ public class SXSSFWriter implements ExcelWriter {
     rowOffset += size;
   }
 
-  private void copyCellStyle(CellStyle cellStyle) {
+  /**
+   * Copies comment and hyperlink of the template cell, if there are any. Clearing them on a new cell would search the
+   * hyperlinks of the sheet for every generated cell.
+   */
+  private static void copyAnnotations(Cell templateCell, Cell newCell) {
+    var comment = templateCell.getCellComment();
+    if (comment != null) {
+      newCell.setCellComment(comment);
+    }
+    var hyperlink = templateCell.getHyperlink();
+    if (hyperlink != null) {
+      newCell.setHyperlink(hyperlink);
+    }
+  }
+
+  /**
+   * Copies the widths of all columns used by the template sheet once, instead of for every written cell.
+   */
+  private void copyColumnWidths(Sheet sheet) {
+    int columns = 0;
+    for (Row row : sheet) {
+      columns = Math.max(columns, row.getLastCellNum());
+    }
+    for (int column = 0; column < columns; column++) {
+      currentSheet.setColumnWidth(column, sheet.getColumnWidth(column));
+    }
+    logger.debug("Copied widths of {} columns", columns);
+  }
+
+  private CellStyle getStyle(CellStyle templateStyle) {
+    return styles.computeIfAbsent(templateStyle.getIndex(), index -> copyCellStyle(templateStyle));
+  }
+
+  /**
+   * Gets the style for a date cell, which is the style of the template cell if it already formats dates, or a copy of
+   * it with {@code dataFormat} otherwise. The copies are created once for every template style and format.
+   */
+  private CellStyle getDateStyle(CellStyle templateStyle, String dataFormat) {
+    var style = getStyle(templateStyle);
+    if (DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString())) {
+      return style;
+    }
+    return dateStyles.computeIfAbsent(templateStyle.getIndex() + "|" + dataFormat, key -> {
+      var dateStyle = workbook.createCellStyle();
+      dateStyle.cloneStyleFrom(style);
+      dateStyle.setDataFormat(workbook.createDataFormat().getFormat(dataFormat));
+      return dateStyle;
+    });
+  }
+
+  private CellStyle copyCellStyle(CellStyle cellStyle) {
+    if (cellStyle.getIndex() == 0) {
+      // The default style exists in every workbook
+      return workbook.getCellStyleAt(0);
+    }
     var newStyle = workbook.createCellStyle();
     newStyle.cloneStyleFrom(cellStyle);
+    return newStyle;
   }
 }
@@ -0,0 +1,52 @@
+package com.docutools.jocument.impl.excel.implementations;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.poi.xssf.model.SharedStringsTable;
+import org.apache.poi.xssf.streaming.GZIPSheetDataWriter;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.streaming.SheetDataWriter;
+
+/**
+ * A {@link SXSSFWorkbook} creating the temporary files of flushed rows in a configured directory. Only the files of
+ * this workbook are affected, the global {@link org.apache.poi.util.TempFileCreationStrategy} of the application is
+ * left untouched and still creates the small copy of the workbook POI assembles the document from.
+ */
+final class TempDirectoryWorkbook extends SXSSFWorkbook {
+  private final Path directory;
+  private final boolean compressTempFiles;
+  private final SharedStringsTable sharedStrings;
+
+  TempDirectoryWorkbook(int rowAccessWindowSize, boolean compressTempFiles, boolean sharedStringsTable, Path directory) {
+    super(null, rowAccessWindowSize, compressTempFiles, sharedStringsTable);
+    this.directory = directory;
+    this.compressTempFiles = compressTempFiles;
+    this.sharedStrings = sharedStringsTable ? getXSSFWorkbook().getSharedStringSource() : null;
+  }
+
+  // The writers are inner classes, since they create their file in the constructor, before their own fields are set
+  @Override
+  protected SheetDataWriter createSheetDataWriter() throws IOException {
+    if (compressTempFiles) {
+      return new GZIPSheetDataWriter(sharedStrings) {
+        @Override
+        public File createTempFile() throws IOException {
+          return TempDirectoryWorkbook.this.createTempFile("poi-sxssf-sheet-xml", ".gz");
+        }
+      };
+    }
+    return new SheetDataWriter(sharedStrings) {
+      @Override
+      public File createTempFile() throws IOException {
+        return TempDirectoryWorkbook.this.createTempFile("poi-sxssf-sheet", ".xml");
+      }
+    };
+  }
+
+  private File createTempFile(String prefix, String suffix) throws IOException {
+    Files.createDirectories(directory);
+    return Files.createTempFile(directory, prefix, suffix).toFile();
+  }
+}
@@ -1,6 +1,7 @@
 package com.docutools.jocument.impl.excel.interfaces;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
@@ -18,7 +19,7 @@ public interface ExcelWriter {
   void newRow(Row row);
 
   /**
-   * Complete the creation of the report, writing the workbook to the earlier specified path.
+   * Complete the creation of the report, writing the workbook to the earlier specified output.
    *
    * @throws IOException If writing out of the workbook fails.
    */
@@ -42,5 +43,31 @@ public interface ExcelWriter {
    */
   void addCell(Cell templateCell, String newCellText);
 
+  /**
+   * Create a new numeric cell from the templateCell with the specified value.
+   *
+   * @param templateCell The template cell to create the new cell from
+   * @param value        The number to insert into the cell
+   */
+  void addCell(Cell templateCell, double value);
+
+  /**
+   * Create a new boolean cell from the templateCell with the specified value.
+   *
+   * @param templateCell The template cell to create the new cell from
+   * @param value        The boolean to insert into the cell
+   */
+  void addCell(Cell templateCell, boolean value);
+
+  /**
+   * Create a new date cell from the templateCell with the specified value.
+   * If the style of the template cell does not format dates, the cell is formatted with {@code dataFormat}.
+   *
+   * @param templateCell The template cell to create the new cell from
+   * @param value        The date to insert into the cell
+   * @param dataFormat   The excel data format to display the date with, e.g. {@code m/d/yy}
+   */
+  void addCell(Cell templateCell, LocalDateTime value, String dataFormat);
+
   void addCell(Cell cell);
 }
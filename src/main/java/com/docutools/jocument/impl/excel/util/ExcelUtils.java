@@ -1,8 +1,13 @@
 package com.docutools.jocument.impl.excel.util;
 
+import com.docutools.jocument.PlaceholderIndex;
 import com.docutools.jocument.impl.DocumentImpl;
 import com.docutools.jocument.impl.ParsingUtils;
+import com.docutools.jocument.impl.PlaceholderIndexImpl;
+import com.docutools.jocument.impl.PlaceholderText;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.Spliterator;
@@ -13,6 +18,8 @@ import org.apache.logging.log4j.Logger;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 public class ExcelUtils {
@@ -144,6 +151,35 @@ public class ExcelUtils {
     return isSimpleRow;
   }
 
+  /**
+   * Scans the string cells of all sheets for placeholders.
+   *
+   * @param workbook The template workbook
+   * @return The index of the placeholders of the workbook
+   */
+  public static PlaceholderIndex indexPlaceholders(Workbook workbook) {
+    List<List<PlaceholderIndexImpl.Element>> sheets = new ArrayList<>(workbook.getNumberOfSheets());
+    for (Sheet sheet : workbook) {
+      List<PlaceholderIndexImpl.Element> rows = new ArrayList<>();
+      for (Row row : sheet) {
+        List<PlaceholderText> texts = new ArrayList<>();
+        for (Cell cell : row) {
+          if (cell.getCellType() == CellType.STRING) {
+            var text = PlaceholderText.scan(cell.getStringCellValue());
+            if (text.getKind() != PlaceholderText.Kind.PLAIN) {
+              texts.add(text);
+            }
+          }
+        }
+        if (!texts.isEmpty()) {
+          rows.add(PlaceholderIndexImpl.Element.row(sheet.getSheetName(), row.getRowNum(), texts, getNumberOfNonEmptyCells(row) == 1));
+        }
+      }
+      sheets.add(rows);
+    }
+    return PlaceholderIndexImpl.build(sheets);
+  }
+
   public static Optional<Locale> getWorkbookLanguage(XSSFWorkbook workbook) {
     var workbookLanguage = workbook.getProperties().getCoreProperties().getUnderlyingProperties().getLanguageProperty();
     return workbookLanguage.map(Locale::forLanguageTag);
@@ -0,0 +1,139 @@
+package com.docutools.jocument.impl.word;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlObject;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTbl;
+
+/**
+ * A {@link XWPFDocument} which copies body elements by copying their XML in one operation each, keeping everything
+ * they contain, e.g. hyperlinks, fields, drawings and nested tables. The wrappers of the copies are bound directly,
+ * instead of creating empty elements and looking up their positions by scanning the body like the insert methods of
+ * POI do.
+ */
+class WordDocument extends XWPFDocument {
+  private static final Logger logger = LogManager.getLogger();
+
+  WordDocument(InputStream in) throws IOException {
+    super(in);
+  }
+
+  /**
+   * Prepares copying body elements before {@code destination} repeatedly, e.g. for every item of a loop.
+   *
+   * @param destination the top level paragraph to insert the copies before
+   * @return the copier
+   */
+  BodyCopier copierBefore(XWPFParagraph destination) {
+    return new BodyCopier(destination);
+  }
+
+  /**
+   * Copies body elements before a destination paragraph. While copying, only the elements before the destination
+   * change, so its positions in the lists of the document follow from the unchanged number of elements after it.
+   */
+  class BodyCopier {
+    private final XWPFParagraph destination;
+    private int bodyElementsAfter;
+    private int paragraphsAfter;
+    private int tablesAfter;
+
+    private BodyCopier(XWPFParagraph destination) {
+      this.destination = destination;
+      locate();
+    }
+
+    /**
+     * Copies the elements before the destination.
+     *
+     * @param elements the top level paragraphs and tables to copy
+     * @return the copies, in the order of {@code elements}
+     */
+    List<IBodyElement> copy(List<IBodyElement> elements) {
+      int position = bodyElements.size() - bodyElementsAfter;
+      if (position < 0 || position >= bodyElements.size() || bodyElements.get(position) != destination) {
+        logger.debug("Body after {} changed, locating it again", destination);
+        locate();
+        position = bodyElements.size() - bodyElementsAfter;
+      }
+      List<IBodyElement> copies = new ArrayList<>(elements.size());
+      List<XWPFParagraph> paragraphCopies = new ArrayList<>();
+      List<XWPFTable> tableCopies = new ArrayList<>();
+      var target = destination.getCTP().newCursor();
+      try {
+        for (IBodyElement element : elements) {
+          var copy = copyXml(element, target);
+          if (copy instanceof CTP ctp) {
+            var paragraph = new XWPFParagraph(ctp, WordDocument.this);
+            paragraphCopies.add(paragraph);
+            copies.add(paragraph);
+          } else if (copy instanceof CTTbl ctTbl) {
+            var table = new XWPFTable(ctTbl, WordDocument.this);
+            tableCopies.add(table);
+            copies.add(table);
+          }
+        }
+      } finally {
+        target.dispose();
+      }
+      bodyElements.addAll(position, copies);
+      paragraphs.addAll(paragraphs.size() - paragraphsAfter, paragraphCopies);
+      tables.addAll(tables.size() - tablesAfter, tableCopies);
+      logger.debug("Copied {} elements before {}", copies.size(), destination);
+      return copies;
+    }
+
+    private void locate() {
+      int position = bodyElements.indexOf(destination);
+      if (position == -1) {
+        throw new IllegalArgumentException("Can only copy before top level paragraphs of the document.");
+      }
+      int tablesBefore = (int) bodyElements.subList(0, position).stream()
+          .filter(XWPFTable.class::isInstance)
+          .count();
+      bodyElementsAfter = bodyElements.size() - position;
+      paragraphsAfter = paragraphs.size() - paragraphs.indexOf(destination);
+      tablesAfter = tables.size() - tablesBefore;
+    }
+  }
+
+  /**
+   * Copies the XML of the element directly before the target.
+   *
+   * @return the copied XML
+   */
+  private static XmlObject copyXml(IBodyElement element, XmlCursor target) {
+    XmlObject source;
+    if (element instanceof XWPFParagraph xwpfParagraph) {
+      source = xwpfParagraph.getCTP();
+    } else if (element instanceof XWPFTable xwpfTable) {
+      source = xwpfTable.getCTTbl();
+    } else {
+      logger.error("Failed to copy {}", element);
+      throw new IllegalArgumentException("Can only copy XWPFParagraph or XWPFTable instances.");
+    }
+    var cursor = source.newCursor();
+    try {
+      cursor.copyXml(target);
+    } finally {
+      cursor.dispose();
+    }
+    var copy = target.newCursor();
+    try {
+      copy.toPrevSibling();
+      return copy.getObject();
+    } finally {
+      copy.dispose();
+    }
+  }
+}
@@ -1,15 +1,19 @@
 package com.docutools.jocument.impl.word;
 
+import com.docutools.jocument.GenerationPhase;
 import com.docutools.jocument.PlaceholderResolver;
 import com.docutools.jocument.Template;
+import com.docutools.jocument.impl.CompiledTemplateImpl;
 import com.docutools.jocument.impl.DocumentImpl;
+import com.docutools.jocument.impl.GenerationListeners;
+import com.google.common.io.CountingOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.poi.util.LocaleUtil;
@@ -20,31 +24,78 @@ public class WordDocumentImpl extends DocumentImpl {
   private static final Logger logger = LogManager.getLogger();
 
   public WordDocumentImpl(Template template, PlaceholderResolver resolver) {
-    super(template, resolver);
+    super(template, resolver, ".docx");
   }
 
   @Override
-  protected Path generate() throws IOException {
+  protected void generate(OutputStream out) throws IOException {
     logger.info("Starting generation");
-    Path file = Files.createTempFile("document", ".docx");
-    try (XWPFDocument document = new XWPFDocument(template.openStream())) {
-      var locale = WordUtilities.getDocumentLanguage(document).orElse(Locale.getDefault());
-      LocaleUtil.setUserLocale(locale);
-      logger.info("Set user locale to {}", locale);
+    var structure = wordStructure();
+    long parsingStart = GenerationListeners.start();
+    try (InputStream in = template.openStream(); XWPFDocument document = new WordDocument(in)) {
+      GenerationListeners.phaseCompleted(GenerationPhase.PARSING, parsingStart);
+      fill(document, resolver, structure);
 
-      List<IBodyElement> bodyElements = new ArrayList<>(document.getBodyElements().size());
-      bodyElements.addAll(document.getBodyElements());
-
-      logger.debug("Retrieved all body elements, starting WordGenerator");
-      WordGenerator.apply(resolver, bodyElements);
-
-      try (OutputStream os = Files.newOutputStream(file)) {
-        logger.info("Writing document to {}", os);
-        document.write(os);
-      }
+      logger.info("Writing document to {}", out);
+      long writingStart = GenerationListeners.start();
+      var countingOut = new CountingOutputStream(out);
+      document.write(countingOut);
+      GenerationListeners.phaseCompleted(GenerationPhase.WRITING, writingStart);
+      GenerationListeners.bytesWritten(countingOut.getCount());
     }
     logger.info("Finished generation");
-    return file;
   }
 
+  /**
+   * Parses the template and fills its placeholders without writing the document, reported to the
+   * {@link GenerationListeners} like a complete generation. Used for the items of a {@link WordMailMerge}.
+   *
+   * @return The filled document, to be closed by the caller
+   * @throws IOException If reading the template fails
+   */
+  XWPFDocument generateDocument() throws IOException {
+    return reportGeneration(() -> {
+      var structure = wordStructure();
+      long parsingStart = GenerationListeners.start();
+      try (InputStream in = template.openStream()) {
+        var document = new WordDocument(in);
+        GenerationListeners.phaseCompleted(GenerationPhase.PARSING, parsingStart);
+        try {
+          fill(document, resolver, structure);
+        } catch (RuntimeException e) {
+          document.close();
+          throw e;
+        }
+        return document;
+      }
+    });
+  }
+
+  private Optional<WordTemplateStructure> wordStructure() {
+    return template instanceof CompiledTemplateImpl compiled ? compiled.getWordStructure() : Optional.empty();
+  }
+
+  /**
+   * Fills the placeholders of a parsed template, setting the user locale to the language of the document.
+   *
+   * @param document  The parsed template, transformed in place
+   * @param resolver  The resolver to fill the placeholders with
+   * @param structure The structure of the template, if it has been compiled
+   */
+  static void fill(XWPFDocument document, PlaceholderResolver resolver, Optional<WordTemplateStructure> structure) {
+    var documentLanguage = structure.isPresent() ? structure.get().getLanguage() : WordUtilities.getDocumentLanguage(document);
+    var locale = documentLanguage.orElse(Locale.getDefault());
+    LocaleUtil.setUserLocale(locale);
+    logger.info("Set user locale to {}", locale);
+
+    List<IBodyElement> bodyElements = new ArrayList<>(document.getBodyElements().size());
+    bodyElements.addAll(document.getBodyElements());
+
+    logger.debug("Retrieved all body elements, starting WordGenerator");
+    if (structure.isPresent()) {
+      WordGenerator.apply(resolver, bodyElements, structure.get()::containsPlaceholders);
+    } else {
+      WordGenerator.apply(resolver, bodyElements);
+    }
+  }
 }
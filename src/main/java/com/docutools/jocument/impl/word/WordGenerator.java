@@ -1,14 +1,24 @@
 package com.docutools.jocument.impl.word;
 
-import static com.docutools.jocument.impl.DocumentImpl.TAG_PATTERN;
-
+import com.docutools.jocument.GenerationPhase;
 import com.docutools.jocument.PlaceholderData;
 import com.docutools.jocument.PlaceholderResolver;
 import com.docutools.jocument.PlaceholderType;
-import com.docutools.jocument.impl.ParsingUtils;
+import com.docutools.jocument.impl.DocumentImpl;
+import com.docutools.jocument.impl.GenerationListeners;
+import com.docutools.jocument.impl.PlaceholderText;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.regex.MatchResult;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -24,22 +34,47 @@ class WordGenerator {
 
   private final PlaceholderResolver resolver;
   private final List<IBodyElement> elements;
-
-  private WordGenerator(PlaceholderResolver resolver, List<IBodyElement> elements) {
+  private final IntPredicate containsPlaceholders;
+  private final Map<String, Optional<PlaceholderData>> scalars = new HashMap<>();
+  /**
+   * The elements removed from the document by unrolled loops, shared with the generators of the loop items.
+   * Replaces looking up whether an element still exists, which scans the whole body of the document.
+   */
+  private final Set<IBodyElement> removed;
+
+  private WordGenerator(PlaceholderResolver resolver, List<IBodyElement> elements, IntPredicate containsPlaceholders,
+                        Set<IBodyElement> removed) {
     this.resolver = resolver;
     this.elements = elements;
+    this.containsPlaceholders = containsPlaceholders;
+    this.removed = removed;
   }
 
   static void apply(PlaceholderResolver resolver, List<IBodyElement> elements) {
-    new WordGenerator(resolver, elements).generate();
+    apply(resolver, elements, position -> true);
+  }
+
+  /**
+   * Applies the resolver to the elements, skipping the ones known to not contain any placeholders.
+   *
+   * @param resolver             The resolver to fill the placeholders with
+   * @param elements             The body elements to transform
+   * @param containsPlaceholders Whether the element at the given position in {@code elements} may contain placeholders
+   */
+  static void apply(PlaceholderResolver resolver, List<IBodyElement> elements, IntPredicate containsPlaceholders) {
+    new WordGenerator(resolver, elements, containsPlaceholders, Collections.newSetFromMap(new IdentityHashMap<>())).generate();
   }
 
   private void generate() {
     logger.debug("Starting generation by applying resolver {} to elements {}", resolver, elements);
     for (int i = 0; i < elements.size(); i++) {
+      DocumentImpl.checkCancellation();
+      if (!containsPlaceholders.test(i)) {
+        continue;
+      }
       var element = elements.get(i);
 
-      if (!WordUtilities.exists(element)) {
+      if (removed.contains(element)) {
         continue;
       }
 
@@ -51,17 +86,12 @@ class WordGenerator {
 
   private void transform(IBodyElement element, List<IBodyElement> remaining) {
     logger.debug("Trying to transform element {}", element);
-    if (isLoopStart(element)) {
-      unrollLoop((XWPFParagraph) element, remaining);
-    } else if (isCustomPlaceholder(element)) {
-      resolver.resolve(WordUtilities.extractPlaceholderName((XWPFParagraph) element))
-          .ifPresent(placeholderData -> placeholderData.transform(element));
-    } else if (element instanceof XWPFParagraph xwpfParagraph) {
-      transform(xwpfParagraph);
+    if (element instanceof XWPFParagraph xwpfParagraph) {
+      transform(xwpfParagraph, remaining);
     } else if (element instanceof XWPFTable xwpfTable) {
       transform(xwpfTable);
     }
-    logger.info("Failed to transform element {}", element);
+    logger.debug("Transformed element {}", element);
   }
 
   private void transform(XWPFTable table) {
@@ -71,41 +101,71 @@ class WordGenerator {
         .flatMap(List::stream)
         .map(XWPFTableCell::getParagraphs)
         .flatMap(List::stream)
-        .forEach(this::transform);
+        .forEach(paragraph -> fill(paragraph, PlaceholderText.scan(WordUtilities.toString(paragraph))));
     logger.debug("Transformed table {}", table);
   }
 
-  private void transform(XWPFParagraph paragraph) {
-    Locale locale = WordUtilities.detectMostCommonLocale(paragraph)
-        .orElse(LocaleUtil.getUserLocale());
-    WordUtilities.replaceText(
-        paragraph,
-        TAG_PATTERN
-            .matcher(WordUtilities.toString(paragraph))
-            .replaceAll(matchResult -> fillPlaceholder(matchResult, locale))
-    );
+  private void transform(XWPFParagraph paragraph, List<IBodyElement> remaining) {
+    var text = PlaceholderText.scan(WordUtilities.toString(paragraph));
+    if (text.getKind() != PlaceholderText.Kind.SINGLE_PLACEHOLDER) {
+      fill(paragraph, text);
+      return;
+    }
+    // A paragraph consisting of one placeholder may be a loop start or a custom placeholder, the data resolved to
+    // find out is used for the transformation as well
+    var placeholderName = text.getSinglePlaceholder().orElseThrow();
+    var placeholderData = resolve(placeholderName, detectLocale(paragraph));
+    GenerationListeners.placeholderResolved(placeholderName, placeholderData.isPresent());
+    var type = placeholderData.map(PlaceholderData::getType);
+    if (type.equals(Optional.of(PlaceholderType.SET)) && text.isExactPlaceholder()) {
+      unrollLoop(paragraph, placeholderName, placeholderData.get(), remaining);
+    } else if (type.equals(Optional.of(PlaceholderType.CUSTOM))) {
+      placeholderData.get().transform(paragraph);
+    } else {
+      WordUtilities.replaceText(paragraph, text.replace(name -> toText(placeholderData)));
+      logger.debug("Transformed paragraph {}", paragraph);
+    }
+  }
+
+  private void fill(XWPFParagraph paragraph, PlaceholderText text) {
+    if (text.getKind() == PlaceholderText.Kind.PLAIN) {
+      return;
+    }
+    Locale locale = detectLocale(paragraph);
+    WordUtilities.replaceText(paragraph, text.replace(placeholderName -> fillPlaceholder(placeholderName, locale)));
     logger.debug("Transformed paragraph {}", paragraph);
   }
 
-  private void unrollLoop(XWPFParagraph start, List<IBodyElement> remaining) {
-    var placeholderName = WordUtilities.extractPlaceholderName(start);
+  private void unrollLoop(XWPFParagraph start, String placeholderName, PlaceholderData placeholderData, List<IBodyElement> remaining) {
     logger.debug("Unrolling loop of {}", placeholderName);
-    var placeholderData = resolver.resolve(placeholderName)
-        .filter(p -> p.getType() == PlaceholderType.SET)
-        .orElseThrow();
     var content = getLoopBody(placeholderName, remaining);
 
-    placeholderData.stream().forEach(itemResolver ->
-        apply(itemResolver, WordUtilities.copyBefore(content, start)));
+    var iterations = new AtomicLong();
+    UnaryOperator<List<IBodyElement>> copier = start.getDocument() instanceof WordDocument document
+        ? document.copierBefore(start)::copy : elements -> WordUtilities.copyBefore(elements, start);
+    // Closed afterwards, since the items may be backed by resources like database cursors
+    try (var items = placeholderData.stream()) {
+      items.forEach(itemResolver -> {
+        long copyStart = GenerationListeners.start();
+        var copy = copier.apply(content);
+        GenerationListeners.phaseCompleted(GenerationPhase.LOOP_UNROLLING, copyStart);
+        new WordGenerator(itemResolver, copy, position -> true, removed).generate();
+        iterations.incrementAndGet();
+      });
+    }
+    GenerationListeners.loopUnrolled(placeholderName, iterations.get());
 
     removeLoop(start, content, remaining);
     logger.debug("Unrolled loop of {}", placeholderName);
   }
 
   private void removeLoop(IBodyElement start, List<IBodyElement> content, List<IBodyElement> remaining) {
-    WordUtilities.removeIfExists(start);
-    content.forEach(WordUtilities::removeIfExists);
-    WordUtilities.removeIfExists(remaining.get(content.size()));
+    List<IBodyElement> loop = new ArrayList<>(content.size() + 2);
+    loop.add(start);
+    loop.addAll(content);
+    loop.add(remaining.get(content.size()));
+    WordUtilities.removeConsecutive(loop);
+    removed.addAll(loop);
   }
 
   private List<IBodyElement> getLoopBody(String placeholderName, List<IBodyElement> remaining) {
@@ -118,32 +178,36 @@ class WordGenerator {
         .collect(Collectors.toList());
   }
 
-  private boolean isLoopStart(IBodyElement element) {
-    return element instanceof XWPFParagraph xwpfParagraph
-        && resolver.resolve(
-        ParsingUtils.stripBrackets(
-            WordUtilities.toString(xwpfParagraph)
-        )).map(PlaceholderData::getType)
-        .map(type -> type == PlaceholderType.SET)
-        .orElse(false);
-  }
-
-  private boolean isCustomPlaceholder(IBodyElement element) {
-    return element instanceof XWPFParagraph xwpfParagraph
-        && resolver.resolve(
-        ParsingUtils.stripBrackets(
-            WordUtilities.toString(xwpfParagraph).trim()
-        )).map(PlaceholderData::getType)
-        .map(type -> type == PlaceholderType.CUSTOM)
-        .orElse(false);
+  private String fillPlaceholder(String placeholderName, Locale locale) {
+    logger.debug("Resolving placeholder {}", placeholderName);
+    var key = locale.toLanguageTag() + '|' + placeholderName;
+    var placeholderData = scalars.get(key);
+    if (placeholderData == null) {
+      placeholderData = resolve(placeholderName, locale);
+      // Only scalars are reused, other data like streamed sets may only be consumed once
+      if (placeholderData.map(PlaceholderData::getType).orElse(PlaceholderType.SCALAR) == PlaceholderType.SCALAR) {
+        scalars.put(key, placeholderData);
+      }
+    }
+    GenerationListeners.placeholderResolved(placeholderName, placeholderData.isPresent());
+    return toText(placeholderData);
   }
 
-  private String fillPlaceholder(MatchResult result, Locale locale) {
-    String placeholder = result.group();
-    String placeholderName = ParsingUtils.stripBrackets(placeholder);
-    logger.debug("Resolving placeholder {}", placeholderName);
-    return resolver.resolve(placeholderName, locale)
+  private static String toText(Optional<PlaceholderData> placeholderData) {
+    return placeholderData
         .map(PlaceholderData::toString)
         .orElse("-");
   }
+
+  private static Locale detectLocale(XWPFParagraph paragraph) {
+    return WordUtilities.detectMostCommonLocale(paragraph)
+        .orElse(LocaleUtil.getUserLocale());
+  }
+
+  private Optional<PlaceholderData> resolve(String placeholderName, Locale locale) {
+    long start = GenerationListeners.start();
+    var placeholderData = resolver.resolve(placeholderName, locale);
+    GenerationListeners.phaseCompleted(GenerationPhase.RESOLUTION, start);
+    return placeholderData;
+  }
 }
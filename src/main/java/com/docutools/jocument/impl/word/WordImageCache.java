@@ -0,0 +1,298 @@
+package com.docutools.jocument.impl.word;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.awt.Dimension;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.xwpf.usermodel.Document;
+import org.jlibvips.VipsImage;
+
+/**
+ * Caches images prepared for insertion into word documents, keyed by the SHA-256 hash of the image file and the
+ * maximum width it gets resized to, so the same logo or profile picture is only resized and encoded once.
+ *
+ * <p>Prepared images are kept in a memory tier bounded by the size of their encoded bytes, which can be set in bytes
+ * with the system property {@value #MEMORY_SIZE_PROPERTY}. An additional disk tier surviving the memory tier and
+ * restarts is used if a directory is set with {@link #setDiskDirectory(Path)} or the system property
+ * {@value #DISK_DIRECTORY_PROPERTY}. The disk tier is bounded by the size of its files, which can be set in bytes with
+ * the system property {@value #DISK_SIZE_PROPERTY}; the least recently used images are deleted when it is exceeded.</p>
+ *
+ * <p>Images which could not be prepared are inserted as they are and not cached, so a missing or failing libvips does
+ * not fill the cache with the original images.</p>
+ *
+ * @see com.docutools.jocument.impl.word.placeholders.ImagePlaceholderData
+ */
+public final class WordImageCache {
+  public static final String MEMORY_SIZE_PROPERTY = "jocument.image.cache.size";
+  public static final String DISK_DIRECTORY_PROPERTY = "jocument.image.cache.dir";
+  public static final String DISK_SIZE_PROPERTY = "jocument.image.cache.dir.size";
+  private static final long DEFAULT_MEMORY_SIZE = 64L * 1024 * 1024;
+  private static final long DEFAULT_DISK_SIZE = 512L * 1024 * 1024;
+  private static final String DISK_SUFFIX = ".img";
+  private static final Logger logger = LogManager.getLogger();
+
+  private static final Cache<String, CachedImage> MEMORY = CacheBuilder.newBuilder()
+      .maximumWeight(Long.getLong(MEMORY_SIZE_PROPERTY, DEFAULT_MEMORY_SIZE))
+      .weigher((String key, CachedImage image) -> image.getData().length)
+      .build();
+
+  private static volatile Optional<Path> diskDirectory = Optional.ofNullable(System.getProperty(DISK_DIRECTORY_PROPERTY))
+      .map(Path::of);
+  private static volatile long diskSize = Long.getLong(DISK_SIZE_PROPERTY, DEFAULT_DISK_SIZE);
+
+  private WordImageCache() {
+  }
+
+  /**
+   * Set the directory of the disk tier, enabling it.
+   *
+   * @param directory the directory to store prepared images in
+   */
+  public static void setDiskDirectory(Path directory) {
+    diskDirectory = Optional.of(directory);
+  }
+
+  /**
+   * Set the directory of the disk tier, enabling it, and the maximum size of its files.
+   *
+   * @param directory the directory to store prepared images in
+   * @param maxSize   the maximum size of all stored images in bytes
+   */
+  public static void setDiskDirectory(Path directory, long maxSize) {
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("Maximum size must not be negative, but was %d".formatted(maxSize));
+    }
+    diskSize = maxSize;
+    diskDirectory = Optional.of(directory);
+  }
+
+  /**
+   * Disable the disk tier. Images already stored on disk are kept.
+   */
+  public static void disableDiskTier() {
+    diskDirectory = Optional.empty();
+  }
+
+  /**
+   * Remove all images from the memory tier. The disk tier is left untouched.
+   */
+  public static void invalidateAll() {
+    MEMORY.invalidateAll();
+  }
+
+  /**
+   * Get the image at {@code path} prepared for insertion, resized to {@code maxWidth} if it is wider.
+   *
+   * @param path     the image file
+   * @param maxWidth the maximum width in pixels, 0 to keep the original width
+   * @return the prepared image
+   * @throws UncheckedIOException if the image file could not be read
+   */
+  public static CachedImage get(Path path, int maxWidth) {
+    try {
+      byte[] original = Files.readAllBytes(path);
+      String key = "%s-%d".formatted(hash(original), maxWidth);
+      var cached = MEMORY.getIfPresent(key);
+      if (cached != null) {
+        return cached;
+      }
+      var loaded = loadFromDisk(key);
+      if (loaded.isPresent()) {
+        MEMORY.put(key, loaded.get());
+        return loaded.get();
+      }
+      return prepare(path, maxWidth)
+          .map(prepared -> {
+            MEMORY.put(key, prepared);
+            return storeOnDisk(key, prepared);
+          })
+          .orElseGet(() -> new CachedImage(original, WordImageUtils.probeImageType(path), WordImageUtils.probeDimensions(path)));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not read image %s".formatted(path), e);
+    }
+  }
+
+  private static Optional<CachedImage> prepare(Path path, int maxWidth) {
+    logger.debug("Preparing image {} with maximum width {}", path, maxWidth);
+    try {
+      VipsImage image = VipsImage.fromFile(path);
+      if (maxWidth > 0 && image.getWidth() > maxWidth) {
+        double scale = (double) maxWidth / image.getWidth();
+        VipsImage resized = image.resize(scale)
+            .create();
+        image.unref();
+        image = resized;
+      }
+      var dimension = new Dimension(image.getWidth(), image.getHeight());
+      Path jpeg = image.jpeg()
+          .save();
+      image.unref();
+      try {
+        return Optional.of(new CachedImage(Files.readAllBytes(jpeg), Document.PICTURE_TYPE_JPEG, Optional.of(dimension)));
+      } finally {
+        Files.deleteIfExists(jpeg);
+      }
+    } catch (Exception | LinkageError e) {
+      logger.warn("Could not resize image %s, using the original".formatted(path), e);
+      return Optional.empty();
+    }
+  }
+
+  private static Optional<CachedImage> loadFromDisk(String key) {
+    return diskDirectory.map(directory -> directory.resolve(key + DISK_SUFFIX))
+        .filter(Files::isRegularFile)
+        .flatMap(file -> {
+          try (var in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)))) {
+            // Marks the image as recently used for the eviction of the disk tier
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+            int pictureType = in.readInt();
+            int width = in.readInt();
+            int height = in.readInt();
+            byte[] data = in.readAllBytes();
+            logger.debug("Loaded prepared image {} from disk", key);
+            var dimension = width < 0 ? Optional.<Dimension>empty() : Optional.of(new Dimension(width, height));
+            return Optional.of(new CachedImage(data, pictureType, dimension));
+          } catch (IOException e) {
+            logger.warn("Could not read cached image %s".formatted(file), e);
+            return Optional.empty();
+          }
+        });
+  }
+
+  private static CachedImage storeOnDisk(String key, CachedImage image) {
+    diskDirectory.ifPresent(directory -> {
+      try {
+        Files.createDirectories(directory);
+        var bytes = new ByteArrayOutputStream(image.getData().length + 12);
+        try (var out = new DataOutputStream(bytes)) {
+          out.writeInt(image.getPictureType());
+          out.writeInt(image.getDimension().map(dimension -> dimension.width).orElse(-1));
+          out.writeInt(image.getDimension().map(dimension -> dimension.height).orElse(-1));
+          out.write(image.getData());
+        }
+        // Written to a temporary file first, so concurrent generations never read a partially written image
+        Path tmp = Files.createTempFile(directory, key, ".tmp");
+        Files.write(tmp, bytes.toByteArray());
+        Files.move(tmp, directory.resolve(key + DISK_SUFFIX), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        evict(directory);
+      } catch (IOException e) {
+        logger.warn("Could not store prepared image %s on disk".formatted(key), e);
+      }
+    });
+    return image;
+  }
+
+  /**
+   * Deletes the least recently used images of the disk tier until its files fit into the maximum size.
+   */
+  private static synchronized void evict(Path directory) throws IOException {
+    List<Path> files;
+    try (var stream = Files.list(directory)) {
+      files = stream.filter(file -> file.getFileName().toString().endsWith(DISK_SUFFIX))
+          .collect(Collectors.toList());
+    }
+    Map<Path, BasicFileAttributes> attributes = new HashMap<>();
+    long total = 0;
+    for (Path file : files) {
+      try {
+        var fileAttributes = Files.readAttributes(file, BasicFileAttributes.class);
+        attributes.put(file, fileAttributes);
+        total += fileAttributes.size();
+      } catch (NoSuchFileException e) {
+        // Evicted by another process sharing the directory
+      }
+    }
+    if (total <= diskSize) {
+      return;
+    }
+    var oldestFirst = attributes.entrySet().stream()
+        .sorted(Comparator.comparing(entry -> entry.getValue().lastModifiedTime()))
+        .collect(Collectors.toList());
+    for (var entry : oldestFirst) {
+      if (total <= diskSize) {
+        break;
+      }
+      Files.deleteIfExists(entry.getKey());
+      total -= entry.getValue().size();
+      logger.debug("Evicted prepared image {} from disk", entry.getKey());
+    }
+  }
+
+  private static String hash(byte[] data) {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256").digest(data);
+      var hex = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        hex.append(Character.forDigit((b >> 4) & 0xF, 16))
+            .append(Character.forDigit(b & 0xF, 16));
+      }
+      return hex.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not supported", e);
+    }
+  }
+
+  /**
+   * An image prepared for insertion into a word document.
+   */
+  public static final class CachedImage {
+    private final byte[] data;
+    private final int pictureType;
+    private final Optional<Dimension> dimension;
+
+    CachedImage(byte[] data, int pictureType, Optional<Dimension> dimension) {
+      this.data = data;
+      this.pictureType = pictureType;
+      this.dimension = dimension;
+    }
+
+    /**
+     * Get the encoded image, which must not be modified.
+     *
+     * @return the encoded image
+     */
+    public byte[] getData() {
+      return data;
+    }
+
+    /**
+     * Get the picture type.
+     *
+     * @return one of the picture type constants of {@link org.apache.poi.xwpf.usermodel.Document}
+     */
+    public int getPictureType() {
+      return pictureType;
+    }
+
+    /**
+     * Get the dimension of the image in pixels.
+     *
+     * @return the dimension, empty if it could not be determined
+     */
+    public Optional<Dimension> getDimension() {
+      return dimension;
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package com.docutools.jocument.impl.word;
 
 import java.awt.Dimension;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -67,7 +68,33 @@ public class WordImageUtils {
     }
   }
 
-  private static Optional<Dimension> probeDimensions(Path path) {
+  /**
+   * Inserts the prepared image into the {@link org.apache.poi.xwpf.usermodel.XWPFParagraph}, without reading or
+   * probing any file.
+   * Inserting the same image again, e.g. within an unrolled loop, only adds a new reference to the picture part which
+   * is already stored in the document, since POI looks up identical picture data by checksum before adding a part.
+   *
+   * @param paragraph the paragraph
+   * @param image     the prepared image
+   * @param name      the file name of the image within the document
+   * @return the inserted image
+   */
+  public static XWPFPicture insertImage(XWPFParagraph paragraph, WordImageCache.CachedImage image, String name) {
+    var dim = image.getDimension()
+        .map(WordImageUtils::scaleToWordSize)
+        .map(WordImageUtils::toEmu)
+        .orElse(DEFAULT_DIM);
+
+    try (var in = new ByteArrayInputStream(image.getData())) {
+      return paragraph.createRun()
+          .addPicture(in, image.getPictureType(), name, dim.width, dim.height);
+    } catch (InvalidFormatException | IOException e) {
+      logger.error("Could not insert image %s.".formatted(name), e);
+      throw new IllegalArgumentException("Could not insert image %s.".formatted(name), e);
+    }
+  }
+
+  static Optional<Dimension> probeDimensions(Path path) {
     VipsImage image = null;
     try {
       image = VipsImage.fromFile(path);
@@ -117,7 +144,7 @@ public class WordImageUtils {
     return new Dimension(width, height);
   }
 
-  private static int probeImageType(Path path) {
+  static int probeImageType(Path path) {
     return probeContentTypeSafely(path)
         .map(contentType -> XWPF_CONTENT_TYPE_MAPPING.getOrDefault(contentType, DEFAULT_XWPF_CONTENT_TYPE))
         .orElse(DEFAULT_XWPF_CONTENT_TYPE);
@@ -0,0 +1,264 @@
+package com.docutools.jocument.impl.word;
+
+import com.docutools.jocument.MimeType;
+import com.docutools.jocument.PlaceholderResolver;
+import com.docutools.jocument.Template;
+import com.docutools.jocument.impl.DocumentImpl;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.TargetMode;
+import org.apache.poi.ss.formula.eval.NotImplementedException;
+import org.apache.poi.util.LocaleUtil;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFPictureData;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlObject;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTBody;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSectPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STSectionMark;
+
+/**
+ * Merges the documents generated from one word template for many resolvers into a single document, e.g. to print a
+ * letter for every customer. Every item is generated from its own copy of the template and its body is appended to the
+ * merged document as XML in one step, separated from the previous item by a section break with the page settings of
+ * the template. Each item is reported to the {@link com.docutools.jocument.impl.GenerationListeners} as a generation of
+ * its own.
+ *
+ * <p>The merged document is kept in memory until all items have been appended and is written at the end, so the
+ * memory used grows linearly with the number and size of the items. Only one item copy is held besides it at a time.
+ * Very large merges should be split into several documents.</p>
+ *
+ * <p>The relations referenced by the copied XML are bound to the merged document: pictures are added to it, storing
+ * equal pictures once, external targets like hyperlinks are added as new relations, and relations to parts of the
+ * template, e.g. headers of inner sections, are kept. Any other relation, e.g. to a chart created by a custom
+ * placeholder, fails the merge, since it would be dangling in the merged document.</p>
+ *
+ * @see Template#mergeAll(Stream, OutputStream)
+ */
+public final class WordMailMerge {
+  private static final Logger logger = LogManager.getLogger();
+  private static final String RELATIONSHIPS_NAMESPACE = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+  private WordMailMerge() {
+  }
+
+  /**
+   * Generates a document for every resolver and writes them merged into one document to {@code out}.
+   *
+   * @param template  The word template to generate the documents from
+   * @param resolvers The resolvers, the stream is closed afterwards. Resolvers which are {@link AutoCloseable} are
+   *                  closed after their document has been generated.
+   * @param out       The stream to write the merged document to, not closed by this method
+   * @throws IOException If reading the template or writing the document fails
+   */
+  public static void merge(Template template, Stream<PlaceholderResolver> resolvers, OutputStream out) throws IOException {
+    if (template.getMimeType() != MimeType.DOCX) {
+      throw new NotImplementedException("Mail merge is not implemented for mime type %s yet".formatted(template.getMimeType()));
+    }
+    logger.info("Starting mail merge of template {}", template);
+    var compiled = template.compile();
+    var userLocale = LocaleUtil.getUserLocale();
+    try (resolvers; InputStream in = compiled.openStream(); XWPFDocument merged = new XWPFDocument(in)) {
+      var body = merged.getDocument().getBody();
+      clear(body);
+      // Looked up once, since the lookups scan the whole body, which grows with every item
+      var sectionProperties = body.isSetSectPr() ? Optional.of(body.getSectPr()) : Optional.<CTSectPr>empty();
+      var sectionBreak = sectionBreak(sectionProperties);
+      var target = endOfContent(body, sectionProperties);
+      Map<String, String> externalRelations = new HashMap<>();
+      long items = 0;
+      try {
+        for (Iterator<PlaceholderResolver> it = resolvers.iterator(); it.hasNext(); items++) {
+          DocumentImpl.checkCancellation();
+          if (items > 0) {
+            copy(sectionBreak, target);
+          }
+          append(merged, generate(compiled, it.next()), target, externalRelations);
+        }
+      } finally {
+        target.dispose();
+      }
+      logger.info("Writing {} merged documents to {}", items, out);
+      merged.write(out);
+    } finally {
+      LocaleUtil.setUserLocale(userLocale);
+    }
+    logger.info("Finished mail merge of template {}", template);
+  }
+
+  private static XWPFDocument generate(Template template, PlaceholderResolver resolver) throws IOException {
+    logger.debug("Generating merged document with resolver {}", resolver);
+    try {
+      return new WordDocumentImpl(template, resolver).generateDocument();
+    } finally {
+      closeResolver(resolver);
+    }
+  }
+
+  private static void closeResolver(PlaceholderResolver resolver) {
+    if (resolver instanceof AutoCloseable closeable) {
+      try {
+        closeable.close();
+      } catch (Exception e) {
+        logger.warn("Could not close resolver %s".formatted(resolver), e);
+      }
+    }
+  }
+
+  /**
+   * Removes the content of the template from the merged document, keeping the section properties of the body.
+   */
+  private static void clear(CTBody body) {
+    var cursor = body.newCursor();
+    try {
+      if (cursor.toFirstChild()) {
+        while (!isSectionProperties(cursor)) {
+          if (!cursor.removeXml()) {
+            break;
+          }
+        }
+      }
+    } finally {
+      cursor.dispose();
+    }
+  }
+
+  /**
+   * Creates the paragraph ending the section of an item with a copy of the section properties of the template, starting
+   * the next item on a new page. It is created outside the merged document and copied between the items.
+   */
+  private static CTP sectionBreak(Optional<CTSectPr> templateProperties) {
+    var paragraph = CTBody.Factory.newInstance().addNewP();
+    var sectionProperties = templateProperties.map(properties -> (CTSectPr) properties.copy())
+        .orElseGet(CTSectPr.Factory::newInstance);
+    if (!sectionProperties.isSetType()) {
+      sectionProperties.addNewType();
+    }
+    sectionProperties.getType().setVal(STSectionMark.NEXT_PAGE);
+    paragraph.addNewPPr().setSectPr(sectionProperties);
+    return paragraph;
+  }
+
+  /**
+   * Appends the body of {@code item} to the body of {@code merged} at {@code target}, before its section properties.
+   */
+  private static void append(XWPFDocument merged, XWPFDocument item, XmlCursor target, Map<String, String> externalRelations)
+      throws IOException {
+    try (item) {
+      var source = item.getDocument().getBody().newCursor();
+      try {
+        Map<String, String> relations = new HashMap<>();
+        if (source.toFirstChild()) {
+          do {
+            if (!isSectionProperties(source)) {
+              rebindRelations(merged, item, source, relations, externalRelations);
+              source.copyXml(target);
+            }
+          } while (source.toNextSibling());
+        }
+      } finally {
+        source.dispose();
+      }
+    }
+  }
+
+  private static void copy(XmlObject element, XmlCursor target) {
+    var source = element.newCursor();
+    try {
+      source.copyXml(target);
+    } finally {
+      source.dispose();
+    }
+  }
+
+  /**
+   * Points every relation id in the element at {@code element} to the corresponding relation of {@code merged}.
+   */
+  private static void rebindRelations(XWPFDocument merged, XWPFDocument item, XmlCursor element, Map<String, String> relations,
+                                      Map<String, String> externalRelations) throws IOException {
+    var cursor = element.newCursor();
+    try {
+      int depth = 0;
+      do {
+        var token = cursor.toNextToken();
+        if (token == XmlCursor.TokenType.START) {
+          depth++;
+        } else if (token == XmlCursor.TokenType.END) {
+          depth--;
+        } else if (token == XmlCursor.TokenType.ATTR && RELATIONSHIPS_NAMESPACE.equals(cursor.getName().getNamespaceURI())) {
+          var id = cursor.getTextValue();
+          var mergedId = relations.get(id);
+          if (mergedId == null) {
+            mergedId = rebind(merged, item, id, externalRelations);
+            relations.put(id, mergedId);
+          }
+          cursor.setTextValue(mergedId);
+        }
+      } while (depth >= 0);
+    } finally {
+      cursor.dispose();
+    }
+  }
+
+  /**
+   * Adds the target of the relation {@code id} of {@code item} to {@code merged}, if it is not part of it already.
+   *
+   * @return the id of the relation in {@code merged}
+   */
+  private static String rebind(XWPFDocument merged, XWPFDocument item, String id, Map<String, String> externalRelations)
+      throws IOException {
+    var relation = item.getPackagePart().getRelationship(id);
+    if (relation == null) {
+      throw new IOException("Could not merge unknown relation %s".formatted(id));
+    }
+    if (relation.getTargetMode() == TargetMode.EXTERNAL) {
+      var key = relation.getRelationshipType() + " " + relation.getTargetURI();
+      return externalRelations.computeIfAbsent(key, ignored -> merged.getPackagePart()
+          .addExternalRelationship(relation.getTargetURI().toString(), relation.getRelationshipType())
+          .getId());
+    }
+    if (item.getRelationById(id) instanceof XWPFPictureData picture) {
+      try {
+        return merged.addPictureData(picture.getData(), picture.getPictureType());
+      } catch (InvalidFormatException e) {
+        throw new IOException("Could not merge picture " + picture.getFileName(), e);
+      }
+    }
+    var existing = merged.getPackagePart().getRelationship(id);
+    if (existing != null && existing.getTargetMode() == TargetMode.INTERNAL
+        && existing.getRelationshipType().equals(relation.getRelationshipType())
+        && existing.getTargetURI().equals(relation.getTargetURI())) {
+      // A part of the template, which is shared by all items
+      return id;
+    }
+    throw new NotImplementedException("Merging relation %s of type %s to %s is not implemented"
+        .formatted(id, relation.getRelationshipType(), relation.getTargetURI()));
+  }
+
+  /**
+   * Creates the cursor the items are inserted at. Inserted XML is placed before the cursor, so it stays in front of the
+   * section properties, or the end of the body, for the whole merge.
+   */
+  private static XmlCursor endOfContent(CTBody body, Optional<CTSectPr> sectionProperties) {
+    return sectionProperties.map(CTSectPr::newCursor)
+        .orElseGet(() -> {
+          var cursor = body.newCursor();
+          cursor.toEndToken();
+          return cursor;
+        });
+  }
+
+  private static boolean isSectionProperties(XmlCursor cursor) {
+    return cursor.getObject() instanceof CTSectPr;
+  }
+}
@@ -0,0 +1,104 @@
+package com.docutools.jocument.impl.word;
+
+import com.docutools.jocument.PlaceholderIndex;
+import com.docutools.jocument.impl.PlaceholderIndexImpl;
+import com.docutools.jocument.impl.PlaceholderText;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+
+/**
+ * The result of analysing a word template once, which can be reused by every generation from that template.
+ * It records the document language and the positions of the top level body elements containing placeholders, so
+ * generations neither have to detect the language nor scan the text of static paragraphs and tables again, and the
+ * {@link PlaceholderIndex} of the template.
+ *
+ * @see com.docutools.jocument.impl.CompiledTemplateImpl
+ */
+public class WordTemplateStructure {
+  private static final Logger logger = LogManager.getLogger();
+
+  private final Locale language;
+  private final BitSet placeholderPositions;
+  private final int size;
+  private final PlaceholderIndex placeholderIndex;
+
+  private WordTemplateStructure(Locale language, BitSet placeholderPositions, int size, PlaceholderIndex placeholderIndex) {
+    this.language = language;
+    this.placeholderPositions = placeholderPositions;
+    this.size = size;
+    this.placeholderIndex = placeholderIndex;
+  }
+
+  /**
+   * Parses the template and records its structure.
+   *
+   * @param template The template file, not closed by this method
+   * @return The structure of the template
+   * @throws IOException If the template could not be parsed
+   */
+  public static WordTemplateStructure analyse(InputStream template) throws IOException {
+    try (XWPFDocument document = new XWPFDocument(template)) {
+      var language = WordUtilities.getDocumentLanguage(document).orElse(null);
+      var bodyElements = document.getBodyElements();
+      var placeholderPositions = new BitSet(bodyElements.size());
+      List<PlaceholderIndexImpl.Element> elements = new ArrayList<>(bodyElements.size());
+      for (int i = 0; i < bodyElements.size(); i++) {
+        if (WordUtilities.containsPlaceholder(bodyElements.get(i))) {
+          placeholderPositions.set(i);
+          toIndexElement(i, bodyElements.get(i)).ifPresent(elements::add);
+        }
+      }
+      logger.debug("Found {} of {} body elements containing placeholders", placeholderPositions.cardinality(), bodyElements.size());
+      return new WordTemplateStructure(language, placeholderPositions, bodyElements.size(), PlaceholderIndexImpl.build(List.of(elements)));
+    }
+  }
+
+  /**
+   * Scans the texts of the element, if it contains placeholders.
+   */
+  private static Optional<PlaceholderIndexImpl.Element> toIndexElement(int position, IBodyElement element) {
+    if (element instanceof XWPFParagraph xwpfParagraph) {
+      var text = PlaceholderText.scan(WordUtilities.toString(xwpfParagraph));
+      return text.getKind() == PlaceholderText.Kind.PLAIN
+          ? Optional.empty() : Optional.of(PlaceholderIndexImpl.Element.paragraph(position, text));
+    } else if (element instanceof XWPFTable xwpfTable) {
+      var texts = WordUtilities.getTableEmbeddedParagraphs(xwpfTable).stream()
+          .map(paragraph -> PlaceholderText.scan(WordUtilities.toString(paragraph)))
+          .filter(text -> text.getKind() != PlaceholderText.Kind.PLAIN)
+          .collect(Collectors.toList());
+      return texts.isEmpty() ? Optional.empty() : Optional.of(PlaceholderIndexImpl.Element.table(position, texts));
+    }
+    return Optional.empty();
+  }
+
+  public Optional<Locale> getLanguage() {
+    return Optional.ofNullable(language);
+  }
+
+  public PlaceholderIndex getPlaceholderIndex() {
+    return placeholderIndex;
+  }
+
+  /**
+   * Check whether the top level body element at {@code position} contains placeholders.
+   * Positions unknown to the template are assumed to contain placeholders.
+   *
+   * @param position The position of the element in the body of the template
+   * @return Whether the element has to be transformed during generation
+   */
+  public boolean containsPlaceholders(int position) {
+    return position >= size || placeholderPositions.get(position);
+  }
+}
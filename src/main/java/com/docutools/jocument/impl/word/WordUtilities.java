@@ -71,6 +71,23 @@ public class WordUtilities {
     }
   }
 
+  /**
+   * Tests if the given element possibly contains placeholders, including the ones in nested tables.
+   *
+   * @param element the element
+   * @return {@code false} when the element does not contain any placeholder
+   */
+  public static boolean containsPlaceholder(IBodyElement element) {
+    if (element instanceof XWPFParagraph xwpfParagraph) {
+      return ParsingUtils.containsPlaceholder(toString(xwpfParagraph));
+    } else if (element instanceof XWPFTable xwpfTable) {
+      return getTableEmbeddedParagraphs(xwpfTable).stream()
+          .map(WordUtilities::toString)
+          .anyMatch(ParsingUtils::containsPlaceholder);
+    }
+    return false;
+  }
+
   /**
    * Tests if the given element is still part of the referenced {@link org.apache.poi.xwpf.usermodel.XWPFDocument}.
    *
@@ -100,12 +117,17 @@ public class WordUtilities {
 
   /**
    * Copies the given elements before the destination element.
+   * In documents generated by jocument the XML of the elements is copied as a whole, other documents copy the
+   * formatting and text of paragraphs and tables only.
    *
    * @param elements    the elements to copy
    * @param destination the destination
    * @return the copies elements
    */
   public static List<IBodyElement> copyBefore(List<IBodyElement> elements, IBodyElement destination) {
+    if (destination instanceof XWPFParagraph xwpfParagraph && xwpfParagraph.getDocument() instanceof WordDocument document) {
+      return document.copierBefore(xwpfParagraph).copy(elements);
+    }
     return elements.stream()
         .map(element -> copyBefore(element, destination))
         .collect(Collectors.toList());
@@ -142,6 +164,33 @@ public class WordUtilities {
         .ifPresent(element.getBody().getXWPFDocument()::removeBodyElement);
   }
 
+  /**
+   * Removes elements which directly follow each other in their {@link org.apache.poi.xwpf.usermodel.XWPFDocument}, like
+   * the elements of an unrolled loop. Only the position of the first element is looked up, the others are expected to
+   * follow it. If they do not, every element is removed on its own.
+   *
+   * @param elements the consecutive elements to be removed
+   */
+  public static void removeConsecutive(List<IBodyElement> elements) {
+    if (elements.isEmpty()) {
+      return;
+    }
+    logger.debug("Removing {} consecutive elements starting with {}", elements.size(), elements.get(0));
+    var document = elements.get(0).getBody().getXWPFDocument();
+    var bodyElements = document.getBodyElements();
+    int start = findPos(elements.get(0)).orElse(-1);
+    boolean consecutive = start != -1 && start + elements.size() <= bodyElements.size()
+        && IntStream.range(0, elements.size()).allMatch(i -> bodyElements.get(start + i) == elements.get(i));
+    if (!consecutive) {
+      logger.debug("Elements are not consecutive, removing them one by one");
+      elements.forEach(WordUtilities::removeIfExists);
+      return;
+    }
+    for (int i = elements.size() - 1; i >= 0; i--) {
+      document.removeBodyElement(start + i);
+    }
+  }
+
   /**
    * Opens a {@link org.apache.xmlbeans.XmlCursor} to the given element in its {@link org.apache.poi.xwpf.usermodel.XWPFDocument}.
    *
@@ -1,14 +1,14 @@
 package com.docutools.jocument.impl.word.placeholders;
 
+import com.docutools.jocument.GenerationPhase;
+import com.docutools.jocument.impl.GenerationListeners;
 import com.docutools.jocument.impl.word.CustomWordPlaceholderData;
+import com.docutools.jocument.impl.word.WordImageCache;
 import com.docutools.jocument.impl.word.WordImageUtils;
 import com.docutools.jocument.impl.word.WordUtilities;
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import org.apache.poi.xwpf.usermodel.IBodyElement;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
-import org.jlibvips.VipsImage;
 
 public class ImagePlaceholderData extends CustomWordPlaceholderData {
 
@@ -28,39 +28,11 @@ public class ImagePlaceholderData extends CustomWordPlaceholderData {
 
   @Override
   protected void transform(IBodyElement placeholder, XWPFDocument document) {
-    Path path = applyOptions();
-    try {
-      var paragraph = document.insertNewParagraph(WordUtilities.openCursor(placeholder).orElseThrow());
-      WordImageUtils.insertImage(paragraph, path);
-      WordUtilities.removeIfExists(placeholder);
-    } finally {
-      if (path != null && !path.equals(imagePath)) {
-        try {
-          Files.deleteIfExists(path);
-        } catch (IOException e) {
-          e.printStackTrace();
-        }
-      }
-    }
-  }
-
-  private Path applyOptions() {
-    try {
-      VipsImage image = VipsImage.fromFile(imagePath);
-      if (maxWidth > 0 && image.getWidth() > maxWidth) {
-        double scale = (double) maxWidth / image.getWidth();
-        VipsImage resized = image.resize(scale)
-            .create();
-        image.unref();
-        image = resized;
-      }
-      Path path = image.jpeg()
-          .save();
-      image.unref();
-      return path;
-    } catch (Exception e) {
-      e.printStackTrace();
-      return imagePath;
-    }
+    long start = GenerationListeners.start();
+    var image = WordImageCache.get(imagePath, maxWidth);
+    var paragraph = document.insertNewParagraph(WordUtilities.openCursor(placeholder).orElseThrow());
+    WordImageUtils.insertImage(paragraph, image, imagePath.getFileName().toString());
+    WordUtilities.removeIfExists(placeholder);
+    GenerationListeners.phaseCompleted(GenerationPhase.IMAGE_PROCESSING, start);
   }
 }
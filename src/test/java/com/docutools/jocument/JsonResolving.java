@@ -8,14 +8,23 @@ import static org.hamcrest.Matchers.isA;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.docutools.jocument.impl.ImageDetectors;
+import com.docutools.jocument.impl.ImagePrefetcher;
 import com.docutools.jocument.impl.JsonResolver;
 import com.docutools.jocument.impl.word.placeholders.ImagePlaceholderData;
 import com.docutools.jocument.sample.model.SampleModelData;
 import com.docutools.jocument.sample.model.Uniform;
 import com.google.gson.JsonParseException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -91,6 +100,60 @@ public class JsonResolving {
     assertThat(shipNames, contains("USS Enterprise", "US Defiant"));
   }
 
+  @Test
+  @DisplayName("Stream array elements from a reader.")
+  void shouldStreamArray() throws IOException {
+    // Arrange
+    var data = JsonResolver.streamArray(new StringReader("[{\"shipName\": \"USS Enterprise\"}, {\"shipName\": \"US Defiant\"}]"));
+    // Act
+    List<String> shipNames = data.stream()
+        .map(r -> r.resolve("shipName")
+            .map(PlaceholderData::toString)
+            .orElseThrow())
+        .collect(Collectors.toList());
+    // Assert
+    assertThat(shipNames, contains("USS Enterprise", "US Defiant"));
+    assertThrows(IllegalStateException.class, data::stream);
+  }
+
+  @Test
+  @DisplayName("Render a loop from a streamed array.")
+  void shouldRenderStreamedArray() throws IOException {
+    // Arrange
+    var template = Template.fromClassPath("/templates/excel/SimpleDocumentWithLoop.xlsx")
+        .orElseThrow();
+    var reader = new StringReader("[{\"shipName\": \"USS Enterprise\"}, {\"shipName\": \"US Defiant\"}]");
+    var out = new ByteArrayOutputStream();
+
+    // Act
+    try (var jsonResolver = new JsonResolver("{}"); var streamingResolver = jsonResolver.withStreamedArray("services", reader)) {
+      assertThrows(UnsupportedOperationException.class, () -> streamingResolver.resolve("services").orElseThrow().count());
+      template.generate(streamingResolver, out);
+    }
+
+    // Assert
+    try (var workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+      var sheet = workbook.getSheetAt(0);
+      assertThat(sheet.getRow(10).getCell(5).getStringCellValue(), equalTo("USS Enterprise"));
+      assertThat(sheet.getRow(11).getCell(5).getStringCellValue(), equalTo("US Defiant"));
+    }
+  }
+
+  @Test
+  @DisplayName("Detect image URLs by the suffix of their path only")
+  void shouldDetectImageSuffixOfPath() {
+    // Arrange
+    var detector = ImageDetectors.byUrlSuffix();
+    // Act
+    var withQuery = detector.isImage("picture", "https://example.com/a.png?next=/b");
+    var withFragment = detector.isImage("picture", "https://example.com/a.png#/b");
+    var suffixInQuery = detector.isImage("picture", "https://example.com/a.b/c?format=.png");
+    // Assert
+    assertThat(withQuery, is(true));
+    assertThat(withFragment, is(true));
+    assertThat(suffixInQuery, is(false));
+  }
+
   @Test
   @DisplayName("Resolve image")
   void shouldResolveImage() {
@@ -102,6 +165,63 @@ public class JsonResolving {
     assertThat(data.get(), isA(ImagePlaceholderData.class));
   }
 
+  @Test
+  @DisplayName("Resolve image URLs as text when the detector does not detect images")
+  void shouldResolveImageUrlAsTextWithoutDetection() throws IOException {
+    // Arrange
+    var plainResolver = new JsonResolver(TestUtils.getText("json/picard.json"), ImageDetectors.none());
+    // Act
+    var data = plainResolver.resolve("profilePic");
+    // Assert
+    assertTrue(data.isPresent());
+    assertThat(data.get().toString(), equalTo("https://i.4pcdn.org/tv/1534222545416.jpg"));
+  }
+
+  @Test
+  @DisplayName("Prefetch images once per URL and delete them on close")
+  void shouldPrefetchImages() throws IOException {
+    // Arrange
+    var fetches = new AtomicInteger();
+    var prefetcher = new ImagePrefetcher(url -> {
+      fetches.incrementAndGet();
+      Path image = Files.createTempFile("jocument-test-", ".jpg");
+      Files.write(image, TestUtils.getText("json/picard.json").getBytes());
+      return image;
+    }, 2);
+    String json = "{\"officers\": [{\"pic\": \"https://example.com/picard.jpg\"}, {\"pic\": \"https://example.com/picard.jpg\"}]}";
+    var prefetchingResolver = new JsonResolver(json, ImageDetectors.defaultDetector(), prefetcher);
+    // Act
+    long images = prefetchingResolver.resolve("officers")
+        .orElseThrow()
+        .stream()
+        .map(officer -> officer.resolve("pic").orElseThrow())
+        .filter(ImagePlaceholderData.class::isInstance)
+        .count();
+    Path image = prefetcher.get("https://example.com/picard.jpg").orElseThrow();
+    prefetchingResolver.close();
+    // Assert
+    assertThat(images, is(2L));
+    assertThat(fetches.get(), is(1));
+    assertThat(Files.exists(image), is(false));
+  }
+
+  @Test
+  @DisplayName("Fetch no images after the prefetcher has been closed")
+  void shouldNotFetchAfterClose() {
+    // Arrange
+    var fetches = new AtomicInteger();
+    var prefetcher = new ImagePrefetcher(url -> {
+      fetches.incrementAndGet();
+      return Files.createTempFile("jocument-test-", ".jpg");
+    }, 0);
+    prefetcher.close();
+    // Act
+    var image = prefetcher.get("https://example.com/picard.jpg");
+    // Assert
+    assertThat(image.isPresent(), is(false));
+    assertThat(fetches.get(), is(0));
+  }
+
   @Test
   @DisplayName("Throw error when parsing invalid JSON")
   void shouldThrowErrorWhenParsingInvalidJson() throws IOException {
@@ -1,9 +1,14 @@
 package com.docutools.jocument;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
 
+import com.docutools.jocument.impl.DocumentImpl;
 import com.docutools.jocument.impl.ParsingUtils;
+import com.docutools.jocument.impl.PlaceholderText;
+import java.util.Optional;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -21,4 +26,34 @@ public class ParsingUtilsTest {
     assertThat(placeholderName, equalTo("placeholder"));
   }
 
+  @Test
+  @DisplayName("Scan placeholders like the tag pattern.")
+  void shouldScanPlaceholdersLikeTagPattern() {
+    // Arrange
+    var text = "Captain {{name}} of {{{ship.name}}, {{invalid name}} and {{Größe}}}";
+    // Act
+    var scanned = PlaceholderText.scan(text);
+    // Assert
+    assertThat(scanned.getKind(), is(PlaceholderText.Kind.MIXED));
+    assertThat(scanned.getPlaceholders(), contains("name", "ship.name", "Größe"));
+    assertThat(scanned.replace(String::toUpperCase),
+        equalTo(DocumentImpl.TAG_PATTERN.matcher(text).replaceAll(match -> match.group(1).toUpperCase())));
+  }
+
+  @Test
+  @DisplayName("Classify single placeholders and loop ends.")
+  void shouldClassifySinglePlaceholders() {
+    // Act
+    var loopStart = PlaceholderText.scan("{{services}}");
+    var custom = PlaceholderText.scan(" {{quote}} ");
+    var loopEnd = PlaceholderText.scan("{{/services}}");
+    var plain = PlaceholderText.scan("Services");
+    // Assert
+    assertThat(loopStart.getKind(), is(PlaceholderText.Kind.SINGLE_PLACEHOLDER));
+    assertThat(loopStart.isExactPlaceholder(), is(true));
+    assertThat(custom.getSinglePlaceholder(), equalTo(Optional.of("quote")));
+    assertThat(custom.isExactPlaceholder(), is(false));
+    assertThat(loopEnd.getKind(), is(PlaceholderText.Kind.LOOP_END));
+    assertThat(plain.getKind(), is(PlaceholderText.Kind.PLAIN));
+  }
 }
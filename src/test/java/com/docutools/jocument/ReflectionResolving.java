@@ -15,13 +15,17 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DisplayName("Resolve placeholders from an object graph via reflection.")
 public class ReflectionResolving {
@@ -117,4 +121,86 @@ public class ReflectionResolving {
     // Assert
     assertThat(captainsName, equalTo(SampleModelData.PICARD.getName()));
   }
+
+  @Test
+  @DisplayName("Resolve entries of maps")
+  void shouldResolveMapEntries() {
+    // Arrange
+    var mapResolver = new ReflectionResolver(Map.of("name", "James T. Kirk"));
+
+    // Act
+    var name = mapResolver.resolve("name")
+            .map(Object::toString)
+            .orElse("");
+
+    // Assert
+    assertThat(name, equalTo("James T. Kirk"));
+  }
+
+  @Test
+  @DisplayName("Resolve map keys named like getters of the map")
+  void shouldResolveMapKeysNamedLikeGetters() {
+    // Arrange
+    var mapResolver = new ReflectionResolver(Map.of("empty", "Starfleet", "class", "Galaxy"));
+
+    // Act
+    var empty = mapResolver.resolve("empty")
+        .map(Object::toString)
+        .orElse("");
+    var shipClass = mapResolver.resolve("class")
+        .map(Object::toString)
+        .orElse("");
+
+    // Assert
+    assertThat(empty, equalTo("Starfleet"));
+    assertThat(shipClass, equalTo("Galaxy"));
+  }
+
+  @Test
+  @DisplayName("Memoize resolved placeholders per scope")
+  void shouldMemoizeResolvedPlaceholders() {
+    // Arrange
+    var cachedResolver = resolver.cached();
+
+    // Act
+    for (int i = 0; i < 3; i++) {
+      cachedResolver.resolve("officer.name");
+      cachedResolver.resolve("services")
+              .orElseThrow()
+              .stream()
+              .forEach(service -> {
+                service.resolve("shipName");
+                service.resolve("shipName");
+              });
+    }
+
+    // Assert
+    var stats = cachedResolver.getStats();
+    assertThat(cachedResolver.resolve("officer.name").map(Object::toString).orElse(""), equalTo("Riker"));
+    assertThat(stats.getMisses(), equalTo(10L));
+    assertThat(stats.getHits(), equalTo(9L));
+  }
+
+  @Test
+  @DisplayName("Resolve streams lazily and only once")
+  void shouldResolveStreamsLazily() {
+    // Arrange
+    var resolvedItems = new AtomicInteger();
+    var crew = Stream.of("Riker", "Data", "Worf")
+            .peek(name -> resolvedItems.incrementAndGet())
+            .map(name -> Map.of("name", name));
+    var crewResolver = new ReflectionResolver(Map.of("crew", crew));
+
+    // Act
+    var data = crewResolver.resolve("crew").orElseThrow();
+    int resolvedBeforeLoop = resolvedItems.get();
+    var names = data.stream()
+            .map(member -> member.resolve("name").map(Object::toString).orElse(""))
+            .collect(Collectors.toList());
+
+    // Assert
+    assertThat(resolvedBeforeLoop, is(0));
+    assertThat(names, contains("Riker", "Data", "Worf"));
+    assertThrows(IllegalStateException.class, data::stream);
+  }
 }
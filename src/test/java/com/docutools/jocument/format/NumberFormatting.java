@@ -2,6 +2,7 @@ package com.docutools.jocument.format;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
 
 import com.docutools.jocument.PlaceholderData;
 import com.docutools.jocument.annotations.Money;
@@ -78,6 +79,44 @@ class NumberFormatting {
     assertThat(actual, equalTo("123.456,4567"));
   }
 
+  @Test
+  @DisplayName("Format the same field by the standards of different locales.")
+  void shouldFormatSameFieldByDifferentLocales() {
+    // Arrange
+    var instance = new Clazz();
+    instance.d = 12345678.9;
+    var resolver = new ReflectionResolver(instance);
+
+    // Act
+    var us = resolver.resolve("d", Locale.US)
+        .map(PlaceholderData::toString)
+        .orElse("");
+    var german = resolver.resolve("d", Locale.GERMAN)
+        .map(PlaceholderData::toString)
+        .orElse("");
+
+    // Assert
+    assertThat(us, equalTo("12,345,678.9"));
+    assertThat(german, equalTo("12.345.678,9"));
+  }
+
+  @Test
+  @DisplayName("Do not resolve @Money fields for locales without a currency.")
+  void shouldNotResolveMoneyWithoutCurrency() {
+    // Arrange
+    var instance = new Clazz();
+    instance.m = 13.75;
+    var resolver = new ReflectionResolver(instance);
+
+    // Act
+    var first = resolver.resolve("m", Locale.GERMAN);
+    var second = resolver.resolve("m", Locale.GERMAN);
+
+    // Assert
+    assertThat(first.isEmpty(), is(true));
+    assertThat(second.isEmpty(), is(true));
+  }
+
   public static class Clazz {
     private double d;
     @Percentage(maxFractionDigits = 2)
@@ -93,6 +132,8 @@ class NumberFormatting {
         parseIntegerOnly = false,
         roundingMode = RoundingMode.HALF_EVEN)
     private double f;
+    @Money
+    private double m;
 
     public double getD() {
       return d;
@@ -109,5 +150,9 @@ class NumberFormatting {
     public double getF() {
       return f;
     }
+
+    public double getM() {
+      return m;
+    }
   }
 }
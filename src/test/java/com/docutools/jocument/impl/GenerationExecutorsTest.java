@@ -0,0 +1,61 @@
+package com.docutools.jocument.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.startsWith;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Generation Executors")
+public class GenerationExecutorsTest {
+
+  @Test
+  @DisplayName("Provide virtual threads only on JDKs supporting them.")
+  void shouldLookUpVirtualThreadExecutor() {
+    // Act
+    var executor = GenerationExecutors.newVirtualThreadExecutor();
+    // Assert
+    assertThat(executor.isPresent(), is(Runtime.version().feature() >= 21));
+    executor.ifPresent(ExecutorService::shutdown);
+  }
+
+  @Test
+  @DisplayName("Fall back to a pool of daemon threads without virtual threads.")
+  void shouldFallBackToFixedPool() throws ExecutionException, InterruptedException {
+    // Act
+    Executor executor = GenerationExecutors.createDefault("virtual", Optional::empty);
+    // Assert
+    try {
+      assertThat(executor, instanceOf(ThreadPoolExecutor.class));
+      var thread = ((ExecutorService) executor).submit(Thread::currentThread).get();
+      assertThat(thread.getName(), startsWith("jocument-generation-"));
+      assertThat(thread.isDaemon(), is(true));
+    } finally {
+      ((ExecutorService) executor).shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Use virtual threads when requested and available.")
+  void shouldUseVirtualThreadExecutor() {
+    // Arrange
+    ExecutorService virtual = Executors.newSingleThreadExecutor();
+    // Act
+    Executor executor = GenerationExecutors.createDefault("virtual", () -> Optional.of(virtual));
+    // Assert
+    try {
+      assertThat(executor, sameInstance(virtual));
+    } finally {
+      virtual.shutdown();
+    }
+  }
+}
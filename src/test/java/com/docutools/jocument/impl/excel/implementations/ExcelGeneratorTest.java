@@ -1,27 +1,50 @@
 package com.docutools.jocument.impl.excel.implementations;
 
 import com.docutools.jocument.Document;
+import com.docutools.jocument.ExcelWriterOptions;
 import com.docutools.jocument.PlaceholderResolver;
 import com.docutools.jocument.Template;
 import com.docutools.jocument.TestUtils;
 import com.docutools.jocument.impl.ReflectionResolver;
 import com.docutools.jocument.sample.model.SampleModelData;
 import com.docutools.poipath.xssf.XSSFWorkbookWrapper;
+import java.util.Date;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.LocaleUtil;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.time.Period;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 
 @DisplayName("Excel Generator Tests")
@@ -131,7 +154,7 @@ class ExcelGeneratorTest {
         assertThat(firstSheet.row(3).cell(0).content(), equalTo("Last Name"));
         assertThat(firstSheet.row(3).cell(1).content(), equalTo("Picard"));
         assertThat(firstSheet.row(4).cell(0).content(), equalTo("Age"));
-        assertThat(firstSheet.row(4).cell(1).content(), equalTo(String.valueOf(Period.between(LocalDate.of(1948, 9, 23), LocalDate.now()).getYears())));
+        assertThat(firstSheet.row(4).cell(1).doubleValue(), closeTo(Period.between(LocalDate.of(1948, 9, 23), LocalDate.now()).getYears(), 0.1));
         assertThat(firstSheet.row(4).cell(2).content(), equalTo(DateTimeFormatter.ofPattern("dd.MM.yyyy", Locale.US).format(LocalDate.of(1948, 9, 23))));
     }
 
@@ -184,4 +207,274 @@ class ExcelGeneratorTest {
         assertThat(firstSheet.row(42).cell(1).content(), equalTo("Nova Metalkova"));
         assertThat(firstSheet.row(52).cell(0).content(), startsWith("Das Denken"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Write the generated document to a stream.")
+    void shouldGenerateToOutputStream() throws IOException {
+        // Arrange
+        Template template = Template.fromClassPath("/templates/excel/CollectionsTemplate.xlsx")
+            .orElseThrow();
+        PlaceholderResolver resolver = new ReflectionResolver(SampleModelData.PICARD);
+        var out = new ByteArrayOutputStream();
+
+        // Act
+        template.generate(resolver, out);
+
+        // Assert
+        workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+        var firstSheet = XSSFWorkbookWrapper.parse(workbook).sheet(0);
+        assertThat(firstSheet.row(0).cell(1).content(), equalTo("Jean-Luc Picard"));
+        assertThat(firstSheet.row(9).cell(1).content(), equalTo("USS Enterprise"));
+    }
+
+    @Test
+    @DisplayName("Stream the items of large loops.")
+    void shouldStreamLargeLoops() throws IOException {
+        // Arrange
+        Template template = Template.fromClassPath("/templates/excel/SimpleDocumentWithLoop.xlsx")
+                .orElseThrow();
+        var services = IntStream.range(0, 5000)
+                .mapToObj(i -> Map.of("shipName", "USS Enterprise " + i));
+        PlaceholderResolver resolver = new ReflectionResolver(Map.of("services", services));
+        var out = new ByteArrayOutputStream();
+
+        // Act
+        template.generate(resolver, out);
+
+        // Assert
+        workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+        var firstSheet = XSSFWorkbookWrapper.parse(workbook).sheet(0);
+        assertThat(firstSheet.row(10).cell(5).content(), equalTo("USS Enterprise 0"));
+        assertThat(firstSheet.row(5009).cell(5).content(), equalTo("USS Enterprise 4999"));
+    }
+
+    @Test
+    @DisplayName("Apply the excel writer options.")
+    void shouldApplyExcelWriterOptions(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        var tempDirectory = tempDir.resolve("sxssf");
+        var options = ExcelWriterOptions.defaults()
+                .withRowAccessWindowSize(1)
+                .withCompressTempFiles(true)
+                .withSharedStringsTable(true)
+                .withTempDirectory(tempDirectory);
+        Template template = Template.fromClassPath("/templates/excel/CollectionsTemplate.xlsx")
+                .orElseThrow()
+                .withExcelWriterOptions(options);
+        PlaceholderResolver resolver = new ReflectionResolver(SampleModelData.PICARD);
+        var out = new ByteArrayOutputStream();
+
+        // Act
+        template.generate(resolver, out);
+
+        // Assert
+        assertThat(template.getExcelWriterOptions(), equalTo(options));
+        assertThat(Files.isDirectory(tempDirectory), is(true));
+        workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+        var firstSheet = XSSFWorkbookWrapper.parse(workbook).sheet(0);
+        assertThat(firstSheet.row(0).cell(1).content(), equalTo("Jean-Luc Picard"));
+        assertThat(firstSheet.row(9).cell(1).content(), equalTo("USS Enterprise"));
+        assertThat(firstSheet.row(10).cell(1).content(), equalTo("US Defiant"));
+    }
+
+    @Test
+    @DisplayName("Delete the temporary files of a failed generation.")
+    void shouldDeleteTempFilesOfFailedGeneration(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        var tempDirectory = tempDir.resolve("sxssf");
+        Template template = Template.fromClassPath("/templates/excel/CollectionsTemplate.xlsx")
+                .orElseThrow()
+                .withExcelWriterOptions(ExcelWriterOptions.defaults().withTempDirectory(tempDirectory));
+        PlaceholderResolver resolver = (placeholderName, locale) -> {
+            throw new IllegalStateException("Could not load " + placeholderName);
+        };
+        var out = new ByteArrayOutputStream();
+
+        // Act
+        var exception = assertThrows(IllegalStateException.class, () -> template.generate(resolver, out));
+
+        // Assert
+        assertThat(exception.getMessage(), startsWith("Could not load "));
+        assertThat(Files.isDirectory(tempDirectory), is(true));
+        try (var files = Files.list(tempDirectory)) {
+            assertThat(files.count(), equalTo(0L));
+        }
+    }
+
+    @Test
+    @DisplayName("Flush rows to compressed temporary files in the configured directory.")
+    void shouldFlushRowsToTempDirectory(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        var tempDirectory = tempDir.resolve("sxssf");
+        var options = ExcelWriterOptions.defaults()
+                .withRowAccessWindowSize(2)
+                .withCompressTempFiles(true)
+                .withTempDirectory(tempDirectory);
+        var streamingWorkbook = SXSSFWriter.createWorkbook(options);
+
+        // Act
+        List<Path> tempFiles;
+        SXSSFSheet sheet;
+        try {
+            sheet = streamingWorkbook.createSheet("Flushed");
+            for (int i = 0; i < 5; i++) {
+                sheet.createRow(i).createCell(0).setCellValue("Row " + i);
+            }
+            try (var files = Files.list(tempDirectory)) {
+                tempFiles = files.collect(Collectors.toList());
+            }
+        } finally {
+            streamingWorkbook.dispose();
+        }
+
+        // Assert
+        assertThat(sheet.getRow(2), nullValue());
+        assertThat(sheet.getRow(3), notNullValue());
+        assertThat(sheet.getRow(4), notNullValue());
+        assertThat(tempFiles.size(), equalTo(1));
+        assertThat(tempFiles.get(0).getFileName().toString(), endsWith(".gz"));
+        try (var files = Files.list(tempDirectory)) {
+            assertThat(files.count(), equalTo(0L));
+        }
+    }
+
+    @Test
+    @DisplayName("Map template styles to the styles of the report.")
+    void shouldMapCellStyles() throws IOException {
+        // Arrange
+        Template template = Template.fromClassPath("/templates/excel/CollectionsTemplate.xlsx")
+                .orElseThrow();
+        PlaceholderResolver resolver = new ReflectionResolver(SampleModelData.PICARD);
+        var out = new ByteArrayOutputStream();
+
+        // Act
+        template.generate(resolver, out);
+
+        // Assert
+        workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+        try (var in = template.openStream(); var templateWorkbook = new XSSFWorkbook(in)) {
+            var templateRow = templateWorkbook.getSheetAt(0).getRow(0);
+            var row = workbook.getSheetAt(0).getRow(0);
+            for (var templateCell : templateRow) {
+                var templateStyle = templateCell.getCellStyle();
+                var style = row.getCell(templateCell.getColumnIndex()).getCellStyle();
+                assertThat(style.getDataFormatString(), equalTo(templateStyle.getDataFormatString()));
+                assertThat(style.getFont().getBold(), equalTo(templateStyle.getFont().getBold()));
+                assertThat(style.getFont().getFontHeight(), equalTo(templateStyle.getFont().getFontHeight()));
+                assertThat(workbook.getSheetAt(0).getColumnWidth(templateCell.getColumnIndex()),
+                        equalTo(templateWorkbook.getSheetAt(0).getColumnWidth(templateCell.getColumnIndex())));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Write typed values to native cells.")
+    void shouldWriteTypedCells() throws IOException {
+        // Arrange
+        Template template = Template.fromClassPath("/templates/excel/UserProfileTemplate.xlsx")
+                .orElseThrow();
+        var birthDate = LocalDate.of(2305, 7, 13);
+        PlaceholderResolver resolver = new ReflectionResolver(Map.of(
+                "fullName", "Jean-Luc Picard",
+                "firstName", true,
+                "lastName", "Picard",
+                "age", 59.5,
+                "birthDate", birthDate));
+        var out = new ByteArrayOutputStream();
+
+        // Act
+        template.generate(resolver, out);
+
+        // Assert
+        workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+        var sheet = workbook.getSheetAt(0);
+        assertThat(sheet.getRow(0).getCell(1).getStringCellValue(), equalTo("Jean-Luc Picard"));
+        assertThat(sheet.getRow(2).getCell(1).getCellType(), is(CellType.BOOLEAN));
+        assertThat(sheet.getRow(2).getCell(1).getBooleanCellValue(), is(true));
+        assertThat(sheet.getRow(4).getCell(1).getCellType(), is(CellType.NUMERIC));
+        assertThat(sheet.getRow(4).getCell(1).getNumericCellValue(), closeTo(59.5, 0.01));
+        var birthDateCell = sheet.getRow(4).getCell(2);
+        assertThat(DateUtil.isCellDateFormatted(birthDateCell), is(true));
+        assertThat(birthDateCell.getDateCellValue(),
+                equalTo(Date.from(birthDate.atStartOfDay(LocaleUtil.getUserTimeZone().toZoneId()).toInstant())));
+    }
+
+    @Test
+    @DisplayName("Write zoned date times at the same instant in the user time zone.")
+    void shouldNormalizeZonedDateTimes() throws IOException {
+        // Arrange
+        Template template = Template.fromClassPath("/templates/excel/UserProfileTemplate.xlsx")
+                .orElseThrow();
+        var offsetDateTime = OffsetDateTime.of(2305, 7, 13, 10, 30, 0, 0, ZoneOffset.ofHours(-5));
+        var zonedDateTime = ZonedDateTime.of(2305, 7, 13, 23, 15, 0, 0, ZoneId.of("Asia/Tokyo"));
+        PlaceholderResolver resolver = new ReflectionResolver(Map.of(
+                "fullName", "Jean-Luc Picard",
+                "firstName", "Jean-Luc",
+                "lastName", "Picard",
+                "age", zonedDateTime,
+                "birthDate", offsetDateTime));
+        var out = new ByteArrayOutputStream();
+        LocaleUtil.setUserTimeZone(TimeZone.getTimeZone("Europe/Vienna"));
+
+        try {
+            // Act
+            template.generate(resolver, out);
+
+            // Assert
+            workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+            var sheet = workbook.getSheetAt(0);
+            assertThat(sheet.getRow(4).getCell(1).getDateCellValue(), equalTo(Date.from(zonedDateTime.toInstant())));
+            assertThat(sheet.getRow(4).getCell(2).getDateCellValue(), equalTo(Date.from(offsetDateTime.toInstant())));
+        } finally {
+            LocaleUtil.resetUserTimeZone();
+        }
+    }
+
+    @Test
+    @DisplayName("Write numbers a numeric cell would round as text.")
+    void shouldKeepPreciseNumbersAsText() throws IOException {
+        // Arrange
+        Template template = Template.fromClassPath("/templates/excel/UserProfileTemplate.xlsx")
+                .orElseThrow();
+        PlaceholderResolver resolver = new ReflectionResolver(Map.of(
+                "fullName", 9007199254740993L,
+                "firstName", new BigDecimal("0.12345678901234567890"),
+                "lastName", new BigInteger("123456789012345678901234567890"),
+                "age", new BigDecimal("19.99"),
+                "birthDate", LocalDate.of(2305, 7, 13)));
+        var out = new ByteArrayOutputStream();
+
+        // Act
+        template.generate(resolver, out);
+
+        // Assert
+        workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+        var sheet = workbook.getSheetAt(0);
+        assertThat(sheet.getRow(0).getCell(1).getStringCellValue(), equalTo("9007199254740993"));
+        assertThat(sheet.getRow(2).getCell(1).getStringCellValue(), equalTo("0.12345678901234567890"));
+        assertThat(sheet.getRow(3).getCell(1).getStringCellValue(), equalTo("123456789012345678901234567890"));
+        assertThat(sheet.getRow(4).getCell(1).getCellType(), is(CellType.NUMERIC));
+        assertThat(sheet.getRow(4).getCell(1).getNumericCellValue(), equalTo(19.99));
+    }
+
+    @Test
+    @DisplayName("Index the placeholders of an excel template.")
+    void shouldIndexPlaceholders() throws IOException {
+        // Arrange
+        Template template = Template.fromClassPath("/templates/excel/SimpleDocumentWithLoop.xlsx")
+                .orElseThrow();
+
+        // Act
+        var index = template.placeholders();
+
+        // Assert
+        assertThat(index.getPlaceholders(), empty());
+        assertThat(index.getLoops().size(), equalTo(1));
+        var loop = index.getLoops().get(0);
+        assertThat(loop.getName(), equalTo("services"));
+        assertThat(loop.getPlaceholders(), contains("shipName"));
+        assertThat(loop.getLocation().getSheet().isPresent(), is(true));
+        assertThat(index.getLocations("shipName").get(0).isStandalone(), is(true));
+        assertThat(index.getNames(), contains("services", "shipName"));
+    }
+}
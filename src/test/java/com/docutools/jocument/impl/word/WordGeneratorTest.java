@@ -2,29 +2,72 @@ package com.docutools.jocument.impl.word;
 
 import com.docutools.jocument.CustomPlaceholderRegistry;
 import com.docutools.jocument.Document;
+import com.docutools.jocument.GenerationListener;
+import com.docutools.jocument.GenerationPhase;
+import com.docutools.jocument.GenerationResult;
+import com.docutools.jocument.MimeType;
+import com.docutools.jocument.PlaceholderData;
+import com.docutools.jocument.PlaceholderIndex;
 import com.docutools.jocument.PlaceholderResolver;
 import com.docutools.jocument.Template;
 import com.docutools.jocument.TestUtils;
 import com.docutools.jocument.impl.CustomPlaceholderRegistryImpl;
+import com.docutools.jocument.impl.GenerationListeners;
+import com.docutools.jocument.impl.InMemoryGenerationMetrics;
 import com.docutools.jocument.impl.ReflectionResolver;
 import com.docutools.jocument.sample.model.SampleModelData;
 import com.docutools.jocument.sample.placeholders.QuotePlaceholder;
 import com.docutools.poipath.xwpf.XWPFDocumentWrapper;
+import org.apache.poi.util.LocaleUtil;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRelation;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.Period;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DisplayName("Word Generator Tests")
 @Tag("automated")
@@ -191,4 +234,551 @@ class WordGeneratorTest {
         var documentWrapper = XWPFDocumentWrapper.parse(xwpfDocument);
         assertThat(documentWrapper.paragraph(0).run(0).text(), equalTo("Live your life not celebrating victories, but overcoming defeats."));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Generate documents from a compiled template.")
+    void shouldGenerateFromCompiledTemplate() throws InterruptedException, IOException {
+        // Arrange
+        Template template = Template.fromClassPath("/templates/word/CollectionsTemplate.docx")
+                .orElseThrow()
+                .compile();
+        PlaceholderResolver resolver = new ReflectionResolver(SampleModelData.PICARD);
+
+        for (int i = 0; i < 2; i++) {
+            // Act
+            Document document = template.startGeneration(resolver);
+            document.blockUntilCompletion(60000L); // 1 minute
+
+            // Assert
+            assertThat(document.completed(), is(true));
+            try (var generated = TestUtils.getXWPFDocumentFromDocument(document)) {
+                var documentWrapper = XWPFDocumentWrapper.parse(generated);
+                assertThat(documentWrapper.paragraph(0).text(), equalTo("Captain: Jean-Luc Picard"));
+                assertThat(documentWrapper.table(0).row(1).column(0).paragraph(0).text(), equalTo("Riker"));
+                assertThat(documentWrapper.paragraph(7).text(), equalTo("USS Enterprise"));
+                assertThat(documentWrapper.paragraph(8).text(), equalTo("US Defiant"));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Generate a document on a given executor.")
+    void shouldGenerateOnGivenExecutor() throws InterruptedException, IOException {
+        // Arrange
+        Template template = Template.fromClassPath("/templates/word/UserProfileTemplate.docx")
+                .orElseThrow();
+        PlaceholderResolver resolver = new ReflectionResolver(SampleModelData.PICARD_PERSON);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AtomicInteger executions = new AtomicInteger();
+        Executor countingExecutor = command -> {
+            executions.incrementAndGet();
+            executor.execute(command);
+        };
+
+        try {
+            // Act
+            Document document = template.startGeneration(resolver, countingExecutor);
+            document.blockUntilCompletion(60000L); // 1 minute
+
+            // Assert
+            assertThat(executions.get(), is(1));
+            assertThat(document.completed(), is(true));
+            xwpfDocument = TestUtils.getXWPFDocumentFromDocument(document);
+            var documentWrapper = XWPFDocumentWrapper.parse(xwpfDocument);
+            assertThat(documentWrapper.paragraph(0).text(), equalTo("User Profile: Jean-Luc Picard"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Complete the future with the generated document.")
+    void shouldCompleteFuture() throws Exception {
+        // Arrange
+        Template template = Template.fromClassPath("/templates/word/UserProfileTemplate.docx")
+                .orElseThrow();
+        PlaceholderResolver resolver = new ReflectionResolver(SampleModelData.PICARD_PERSON);
+
+        // Act
+        Path path = template.generateAsync(resolver).get(1, TimeUnit.MINUTES);
+
+        // Assert
+        xwpfDocument = new XWPFDocument(Files.newInputStream(path));
+        var documentWrapper = XWPFDocumentWrapper.parse(xwpfDocument);
+        assertThat(documentWrapper.paragraph(0).text(), equalTo("User Profile: Jean-Luc Picard"));
+    }
+
+    @Test
+    @DisplayName("Complete the future exceptionally when generation fails.")
+    void shouldPropagateGenerationFailure() {
+        // Arrange
+        Template template = Template.fromClassPath("/templates/word/UserProfileTemplate.docx")
+                .orElseThrow();
+        PlaceholderResolver resolver = (placeholderName, locale) -> {
+            throw new IllegalStateException("Could not load " + placeholderName);
+        };
+
+        // Act
+        Document document = template.startGeneration(resolver);
+        var exception = assertThrows(ExecutionException.class, () -> document.toFuture().get(1, TimeUnit.MINUTES));
+
+        // Assert
+        assertThat(exception.getCause(), instanceOf(IllegalStateException.class));
+        assertThat(exception.getCause().getMessage(), startsWith("Could not load "));
+        assertThat(document.completed(), is(false));
+    }
+
+    @Test
+    @DisplayName("Interrupt a running generation when it gets cancelled.")
+    void shouldInterruptCancelledGeneration() throws Exception {
+        // Arrange
+        Template template = Template.fromClassPath("/templates/word/UserProfileTemplate.docx")
+                .orElseThrow();
+        var started = new CountDownLatch(1);
+        var interrupted = new CountDownLatch(1);
+        var stopped = new CountDownLatch(1);
+        PlaceholderResolver resolver = (placeholderName, locale) -> {
+            started.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+            }
+            return Optional.empty();
+        };
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Executor executor = command -> pool.execute(() -> {
+            command.run();
+            stopped.countDown();
+        });
+
+        try {
+            Document document = template.startGeneration(resolver, executor);
+            assertThat(started.await(1, TimeUnit.MINUTES), is(true));
+
+            // Act
+            var cancelled = document.toFuture().cancel(true);
+
+            // Assert
+            assertThat(cancelled, is(true));
+            assertThat(interrupted.await(1, TimeUnit.MINUTES), is(true));
+            assertThat(stopped.await(1, TimeUnit.MINUTES), is(true));
+            assertThat(document.toFuture().isCancelled(), is(true));
+            assertThat(document.completed(), is(false));
+            assertThat(pool.submit(() -> Thread.currentThread().isInterrupted()).get(1, TimeUnit.MINUTES), is(false));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Keep the locale of a thread running a generation itself.")
+    void shouldKeepLocaleOfRunningThread() {
+        // Arrange
+        Template template = Template.fromClassPath("/templates/word/UserProfileTemplate.docx")
+                .orElseThrow();
+        PlaceholderResolver resolver = new ReflectionResolver(SampleModelData.PICARD_PERSON);
+        LocaleUtil.setUserLocale(Locale.ITALIAN);
+
+        try {
+            // Act
+            Document document = template.startGeneration(resolver, Runnable::run);
+
+            // Assert
+            assertThat(document.completed(), is(true));
+            assertThat(LocaleUtil.getUserLocale(), equalTo(Locale.ITALIAN));
+        } finally {
+            LocaleUtil.resetUserLocale();
+        }
+    }
+
+    @Test
+    @DisplayName("Write the generated document to a stream.")
+    void shouldGenerateToOutputStream() throws IOException {
+        // Arrange
+        Template template = Template.fromClassPath("/templates/word/UserProfileTemplate.docx")
+                .orElseThrow();
+        PlaceholderResolver resolver = new ReflectionResolver(SampleModelData.PICARD_PERSON);
+        var out = new ByteArrayOutputStream();
+
+        // Act
+        template.generate(resolver, out);
+
+        // Assert
+        xwpfDocument = new XWPFDocument(new ByteArrayInputStream(out.toByteArray()));
+        var documentWrapper = XWPFDocumentWrapper.parse(xwpfDocument);
+        assertThat(documentWrapper.paragraph(0).text(), equalTo("User Profile: Jean-Luc Picard"));
+    }
+
+    @Test
+    @DisplayName("Prepare an image only once per content and width.")
+    void shouldReusePreparedImage() throws IOException, URISyntaxException {
+        // Arrange
+        Path image = Path.of(getClass().getResource("/images/picardProfile.jpg").toURI());
+        Path copy = Files.createTempFile("jocument-test-", ".jpg");
+        Files.copy(image, copy, StandardCopyOption.REPLACE_EXISTING);
+
+        // Act
+        var prepared = WordImageCache.get(image, 100);
+        var preparedCopy = WordImageCache.get(copy, 100);
+        Files.delete(copy);
+
+        // Assert
+        assertThat(preparedCopy, sameInstance(prepared));
+    }
+
+    @Test
+    @DisplayName("Evict the least recently used images from the disk tier of the image cache.")
+    void shouldEvictPreparedImagesFromDisk() throws IOException, URISyntaxException {
+        // Arrange
+        Path image = Path.of(getClass().getResource("/images/picardProfile.jpg").toURI());
+        Path directory = Files.createTempDirectory("jocument-image-cache-");
+        WordImageCache.setDiskDirectory(directory);
+        WordImageCache.get(image, 37);
+        Path first;
+        try (var files = Files.list(directory)) {
+            first = files.findFirst().orElseThrow();
+        }
+        Files.setLastModifiedTime(first, FileTime.from(Instant.now().minusSeconds(60)));
+        WordImageCache.setDiskDirectory(directory, Files.size(first) * 3 / 2);
+
+        // Act
+        try {
+            WordImageCache.get(image, 38);
+        } finally {
+            WordImageCache.disableDiskTier();
+        }
+
+        // Assert
+        try (var files = Files.list(directory)) {
+            var remaining = files.collect(Collectors.toList());
+            assertThat(remaining.size(), equalTo(1));
+            assertThat(remaining, not(hasItem(first)));
+        }
+    }
+
+    @Test
+    @DisplayName("Store a repeated image only once in the document.")
+    void shouldStoreRepeatedImageOnce() throws URISyntaxException {
+        // Arrange
+        Path imagePath = Path.of(getClass().getResource("/images/picardProfile.jpg").toURI());
+        var image = WordImageCache.get(imagePath, 0);
+        xwpfDocument = new XWPFDocument();
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            WordImageUtils.insertImage(xwpfDocument.createParagraph(), image, "picardProfile.jpg");
+        }
+
+        // Assert
+        assertThat(xwpfDocument.getAllPackagePictures().size(), equalTo(1));
+        var documentWrapper = XWPFDocumentWrapper.parse(xwpfDocument);
+        assertThat(documentWrapper.paragraph(2).run(0).pictures().size(), equalTo(1));
+    }
+
+    @Test
+    @DisplayName("Report generation metrics to listeners.")
+    void shouldReportGenerationMetrics() throws IOException {
+        // Arrange
+        Template template = Template.fromClassPath("/templates/word/CollectionsTemplate.docx")
+                .orElseThrow();
+        PlaceholderResolver resolver = new ReflectionResolver(SampleModelData.PICARD);
+        var metrics = new InMemoryGenerationMetrics();
+        var out = new ByteArrayOutputStream();
+
+        // Act
+        GenerationListeners.add(metrics);
+        try {
+            template.generate(resolver, out);
+        } finally {
+            GenerationListeners.remove(metrics);
+        }
+
+        // Assert
+        assertThat(metrics.getGenerationsStarted(), equalTo(1L));
+        assertThat(metrics.getGenerationsSucceeded(), equalTo(1L));
+        assertThat(metrics.getLoopsUnrolled(), equalTo(2L));
+        assertThat(metrics.getLoopIterations(), equalTo(3L));
+        assertThat(metrics.getPlaceholdersResolved(), greaterThan(0L));
+        assertThat(metrics.getPhaseCount(GenerationPhase.PARSING), equalTo(1L));
+        assertThat(metrics.getPhaseCount(GenerationPhase.WRITING), equalTo(1L));
+        assertThat(metrics.getBytesWritten(), equalTo((long) out.size()));
+    }
+
+    @Test
+    @DisplayName("Report the events of a nested generation to the inner and then the outer document.")
+    void shouldReportNestedGenerations() throws IOException {
+        // Arrange
+        Template template = Template.fromClassPath("/templates/word/UserProfileTemplate.docx")
+                .orElseThrow();
+        PlaceholderResolver inner = new ReflectionResolver(SampleModelData.PICARD_PERSON);
+        PlaceholderResolver delegate = new ReflectionResolver(SampleModelData.PICARD_PERSON);
+        var innerGenerated = new AtomicInteger();
+        PlaceholderResolver outer = (placeholderName, locale) -> {
+            if (innerGenerated.getAndIncrement() == 0) {
+                try {
+                    template.generate(inner, new ByteArrayOutputStream());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return delegate.resolve(placeholderName, locale);
+        };
+        List<Document> written = new CopyOnWriteArrayList<>();
+        List<Document> finished = new CopyOnWriteArrayList<>();
+        GenerationListener listener = new GenerationListener() {
+            @Override
+            public void bytesWritten(Document document, long bytes) {
+                written.add(document);
+            }
+
+            @Override
+            public void generationFinished(Document document, Duration duration, Optional<Throwable> failure) {
+                finished.add(document);
+            }
+        };
+
+        // Act
+        GenerationListeners.add(listener);
+        try {
+            template.generate(outer, new ByteArrayOutputStream());
+        } finally {
+            GenerationListeners.remove(listener);
+        }
+
+        // Assert
+        assertThat(finished.size(), is(2));
+        assertThat(finished.get(0), not(sameInstance(finished.get(1))));
+        assertThat(written, contains(finished.get(0), finished.get(1)));
+    }
+
+    @Test
+    @DisplayName("Generate a batch of documents in order and report failures per document.")
+    void shouldGenerateBatch() throws IOException, InterruptedException {
+        // Arrange
+        Template template = Template.fromClassPath("/templates/word/UserProfileTemplate.docx")
+                .orElseThrow();
+        PlaceholderResolver failing = (placeholderName, locale) -> {
+            throw new IllegalStateException("Could not resolve " + placeholderName);
+        };
+        var resolvers = Stream.<PlaceholderResolver>of(
+                new ReflectionResolver(SampleModelData.PICARD_PERSON),
+                new ReflectionResolver(SampleModelData.PICARD_PERSON),
+                failing,
+                new ReflectionResolver(SampleModelData.PICARD_PERSON));
+        Map<Long, ByteArrayOutputStream> documents = new ConcurrentHashMap<>();
+
+        // Act
+        var results = template.generateAll(resolvers, index -> documents.computeIfAbsent(index, i -> new ByteArrayOutputStream()), 2);
+
+        // Assert
+        assertThat(results.stream().map(GenerationResult::getIndex).collect(Collectors.toList()), contains(0L, 1L, 2L, 3L));
+        assertThat(results.stream().map(GenerationResult::isSucceeded).collect(Collectors.toList()), contains(true, true, false, true));
+        assertThat(results.get(2).getFailure().orElseThrow(), instanceOf(IllegalStateException.class));
+        xwpfDocument = new XWPFDocument(new ByteArrayInputStream(documents.get(3L).toByteArray()));
+        var documentWrapper = XWPFDocumentWrapper.parse(xwpfDocument);
+        assertThat(documentWrapper.paragraph(0).text(), equalTo("User Profile: Jean-Luc Picard"));
+    }
+
+    @Test
+    @DisplayName("Continue a batch after a document failed with an error.")
+    void shouldContinueBatchAfterError() throws IOException, InterruptedException {
+        // Arrange
+        Template template = Template.fromClassPath("/templates/word/UserProfileTemplate.docx")
+                .orElseThrow();
+        PlaceholderResolver failing = (placeholderName, locale) -> {
+            throw new LinkageError("Could not link " + placeholderName);
+        };
+        var resolvers = Stream.<PlaceholderResolver>of(
+                failing,
+                new ReflectionResolver(SampleModelData.PICARD_PERSON));
+        Map<Long, ByteArrayOutputStream> documents = new ConcurrentHashMap<>();
+
+        // Act
+        var results = template.generateAll(resolvers, index -> documents.computeIfAbsent(index, i -> new ByteArrayOutputStream()), 1);
+
+        // Assert
+        assertThat(results.stream().map(GenerationResult::isSucceeded).collect(Collectors.toList()), contains(false, true));
+        assertThat(results.get(0).getIndex(), equalTo(0L));
+        assertThat(results.get(0).getFailure().orElseThrow(), instanceOf(LinkageError.class));
+        xwpfDocument = new XWPFDocument(new ByteArrayInputStream(documents.get(1L).toByteArray()));
+        var documentWrapper = XWPFDocumentWrapper.parse(xwpfDocument);
+        assertThat(documentWrapper.paragraph(0).text(), equalTo("User Profile: Jean-Luc Picard"));
+    }
+
+    @Test
+    @DisplayName("Merge the documents of many resolvers into one document.")
+    void shouldMergeDocuments() throws IOException {
+        // Arrange
+        Template template = Template.fromClassPath("/templates/word/UserProfileTemplate.docx")
+                .orElseThrow();
+        var resolvers = Stream.<PlaceholderResolver>of(
+                new ReflectionResolver(SampleModelData.PICARD_PERSON),
+                new ReflectionResolver(SampleModelData.PICARD_PERSON),
+                new ReflectionResolver(SampleModelData.PICARD_PERSON));
+        var out = new ByteArrayOutputStream();
+
+        // Act
+        template.mergeAll(resolvers, out);
+
+        // Assert
+        xwpfDocument = new XWPFDocument(new ByteArrayInputStream(out.toByteArray()));
+        var paragraphs = xwpfDocument.getParagraphs();
+        assertThat(paragraphs.stream().filter(paragraph -> paragraph.getText().equals("User Profile: Jean-Luc Picard")).count(), equalTo(3L));
+        assertThat(paragraphs.stream().filter(paragraph -> paragraph.getCTP().isSetPPr() && paragraph.getCTP().getPPr().isSetSectPr()).count(),
+                equalTo(2L));
+        assertThat(xwpfDocument.getDocument().getBody().isSetSectPr(), is(true));
+    }
+
+    @Test
+    @DisplayName("Close the resolvers of merged documents.")
+    void shouldCloseMergedResolvers() throws IOException {
+        // Arrange
+        Template template = Template.fromClassPath("/templates/word/UserProfileTemplate.docx")
+                .orElseThrow();
+        var closed = new AtomicInteger();
+        class ClosingResolver implements PlaceholderResolver, AutoCloseable {
+            private final PlaceholderResolver delegate = new ReflectionResolver(SampleModelData.PICARD_PERSON);
+
+            @Override
+            public Optional<PlaceholderData> resolve(String placeholderName, Locale locale) {
+                return delegate.resolve(placeholderName, locale);
+            }
+
+            @Override
+            public void close() {
+                closed.incrementAndGet();
+            }
+        }
+        var resolvers = Stream.<PlaceholderResolver>of(new ClosingResolver(), new ClosingResolver());
+
+        // Act
+        template.mergeAll(resolvers, new ByteArrayOutputStream());
+
+        // Assert
+        assertThat(closed.get(), equalTo(2));
+    }
+
+    @Test
+    @DisplayName("Bind the hyperlinks of merged documents to the merged document.")
+    void shouldMergeHyperlinks() throws IOException {
+        // Arrange
+        byte[] data;
+        try (var document = new XWPFDocument(); var out = new ByteArrayOutputStream()) {
+            document.createParagraph().createRun().setText("{{firstName}}");
+            var relation = document.getPackagePart()
+                    .addExternalRelationship("https://example.com/starfleet", XWPFRelation.HYPERLINK.getRelation());
+            var hyperlink = document.createParagraph().getCTP().addNewHyperlink();
+            hyperlink.setId(relation.getId());
+            hyperlink.addNewR().addNewT().setStringValue("Starfleet");
+            document.write(out);
+            data = out.toByteArray();
+        }
+        Template template = Template.from(data, MimeType.DOCX).orElseThrow();
+        var resolvers = Stream.<PlaceholderResolver>of(
+                new ReflectionResolver(SampleModelData.PICARD_PERSON),
+                new ReflectionResolver(SampleModelData.PICARD_PERSON));
+        var out = new ByteArrayOutputStream();
+
+        // Act
+        template.mergeAll(resolvers, out);
+
+        // Assert
+        xwpfDocument = new XWPFDocument(new ByteArrayInputStream(out.toByteArray()));
+        var targets = xwpfDocument.getParagraphs().stream()
+                .flatMap(paragraph -> paragraph.getCTP().getHyperlinkList().stream())
+                .map(hyperlink -> xwpfDocument.getPackagePart().getRelationship(hyperlink.getId()).getTargetURI().toString())
+                .collect(Collectors.toList());
+        assertThat(targets, contains("https://example.com/starfleet", "https://example.com/starfleet"));
+    }
+
+    @Test
+    @DisplayName("Report every merged document as a generation.")
+    void shouldReportMergedGenerations() throws IOException {
+        // Arrange
+        Template template = Template.fromClassPath("/templates/word/UserProfileTemplate.docx")
+                .orElseThrow();
+        var resolvers = Stream.<PlaceholderResolver>of(
+                new ReflectionResolver(SampleModelData.PICARD_PERSON),
+                new ReflectionResolver(SampleModelData.PICARD_PERSON));
+        var metrics = new InMemoryGenerationMetrics();
+
+        // Act
+        GenerationListeners.add(metrics);
+        try {
+            template.mergeAll(resolvers, new ByteArrayOutputStream());
+        } finally {
+            GenerationListeners.remove(metrics);
+        }
+
+        // Assert
+        assertThat(metrics.getGenerationsStarted(), equalTo(2L));
+        assertThat(metrics.getGenerationsSucceeded(), equalTo(2L));
+        assertThat(metrics.getPhaseCount(GenerationPhase.PARSING), equalTo(2L));
+        assertThat(metrics.getPlaceholdersResolved(), greaterThan(0L));
+    }
+
+    @Test
+    @DisplayName("Copy loop bodies including fields and nested tables.")
+    void shouldCopyLoopBodiesLosslessly() throws IOException {
+        // Arrange
+        byte[] data;
+        try (var document = new XWPFDocument(); var out = new ByteArrayOutputStream()) {
+            document.createParagraph().createRun().setText("{{services}}");
+            document.createParagraph().createRun().setText("{{shipName}}");
+            var field = document.createParagraph().getCTP().addNewFldSimple();
+            field.setInstr("PAGE");
+            field.addNewR().addNewT().setStringValue("1");
+            document.createTable(1, 1).getRow(0).getCell(0).getCTTc().addNewTbl().addNewTr().addNewTc().addNewP();
+            document.createParagraph().createRun().setText("{{/services}}");
+            document.write(out);
+            data = out.toByteArray();
+        }
+        Template template = Template.from(data, MimeType.DOCX).orElseThrow();
+        var services = Stream.of("USS Stargazer", "USS Enterprise")
+                .map(shipName -> Map.of("shipName", shipName))
+                .collect(Collectors.toList());
+        PlaceholderResolver resolver = new ReflectionResolver(Map.of("services", services));
+
+        // Act
+        Document document = template.startGeneration(resolver);
+        document.blockUntilCompletion(60000L); // 1 minute
+
+        // Assert
+        assertThat(document.completed(), is(true));
+        xwpfDocument = TestUtils.getXWPFDocumentFromDocument(document);
+        var paragraphs = xwpfDocument.getParagraphs();
+        assertThat(paragraphs.stream().map(XWPFParagraph::getText).filter(text -> text.startsWith("USS")).collect(Collectors.toList()),
+                contains("USS Stargazer", "USS Enterprise"));
+        assertThat(paragraphs.stream().filter(paragraph -> paragraph.getCTP().sizeOfFldSimpleArray() == 1).count(), equalTo(2L));
+        var tables = xwpfDocument.getTables();
+        assertThat(tables.size(), equalTo(2));
+        assertThat(tables.get(0).getRow(0).getCell(0).getCTTc().sizeOfTblArray(), equalTo(1));
+        assertThat(tables.get(1).getRow(0).getCell(0).getCTTc().sizeOfTblArray(), equalTo(1));
+    }
+
+    @Test
+    @DisplayName("Index the placeholders of a compiled template.")
+    void shouldIndexPlaceholders() throws IOException {
+        // Arrange
+        Template template = Template.fromClassPath("/templates/word/CollectionsTemplate.docx")
+                .orElseThrow()
+                .compile();
+
+        // Act
+        var index = template.placeholders();
+
+        // Assert
+        assertThat(index, sameInstance(template.placeholders()));
+        assertThat(index.getPlaceholders(), contains("name"));
+        assertThat(index.getLoops().stream().map(PlaceholderIndex.Loop::getName).collect(Collectors.toList()),
+                contains("officer", "services"));
+        assertThat(index.getLoops().get(0).getPlaceholders(), contains("name", "rank", "uniform"));
+        assertThat(index.getLoops().get(1).getPlaceholders(), contains("shipName"));
+        assertThat(index.getLocations("name").size(), equalTo(2));
+        assertThat(index.getLocations("services").get(0).isStandalone(), is(true));
+        assertThat(index.findUnresolved(new ReflectionResolver(SampleModelData.PICARD)).isEmpty(), is(true));
+        assertThat(index.findUnresolved(new ReflectionResolver(Map.of("name", "Jean-Luc Picard"))), contains("officer", "services"));
+    }
+}